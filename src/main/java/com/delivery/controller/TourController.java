@@ -1,17 +1,25 @@
 package com.delivery.controller;
 
+import com.delivery.dto.BulkOptimizationDTO;
 import com.delivery.dto.TourDTO;
 import com.delivery.entity.Delivery;
 import com.delivery.entity.Tour;
 import com.delivery.mapper.TourMapper;
+import com.delivery.optimizer.RouteEvaluation;
+import com.delivery.service.OptimizationCache;
+import com.delivery.service.OptimizationJob;
+import com.delivery.service.OptimizationJobService;
 import com.delivery.service.TourService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,10 +28,12 @@ public class TourController {
 
     private final TourService tourService;
     private final TourMapper tourMapper;
+    private final OptimizationJobService optimizationJobService;
 
-    public TourController(TourService tourService, TourMapper tourMapper) {
+    public TourController(TourService tourService, TourMapper tourMapper, OptimizationJobService optimizationJobService) {
         this.tourService = tourService;
         this.tourMapper = tourMapper;
+        this.optimizationJobService = optimizationJobService;
     }
 
     @GetMapping
@@ -89,9 +99,12 @@ public class TourController {
     }
 
     @PostMapping("/{id}/optimize")
-    public ResponseEntity<TourDTO> optimizeTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm) {
+    public ResponseEntity<TourDTO> optimizeTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm,
+                                                @RequestParam(required = false) Long timeBudgetMs) {
         try {
-            Tour optimizedTour = tourService.optimizeTour(id, algorithm);
+            // Budget de calcul optionnel, converti en échéance dès réception de la requête
+            Instant deadline = timeBudgetMs != null ? Instant.now().plusMillis(timeBudgetMs) : null;
+            Tour optimizedTour = tourService.optimizeTour(id, algorithm, deadline);
             TourDTO optimizedDTO = tourMapper.toDTO(optimizedTour);
             return ResponseEntity.ok(optimizedDTO);
         } catch (RuntimeException e) {
@@ -101,6 +114,39 @@ public class TourController {
         }
     }
 
+    @PostMapping("/{id}/optimize-async")
+    public ResponseEntity<OptimizationJob> submitOptimization(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm,
+                                                              @RequestParam(required = false) Long timeBudgetMs) {
+        try {
+            OptimizationJob job = optimizationJobService.submit(id, algorithm, timeBudgetMs);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @GetMapping("/optimization-jobs/{jobId}")
+    public ResponseEntity<OptimizationJob> getOptimizationJob(@PathVariable String jobId) {
+        return optimizationJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/optimization-jobs/{jobId}/result")
+    public ResponseEntity<TourDTO> getOptimizationJobResult(@PathVariable String jobId) {
+        Optional<OptimizationJob> job = optimizationJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Travail en cours : 202, échec : 422, terminé : la tournée optimisée
+        return switch (job.get().getStatus()) {
+            case QUEUED, RUNNING -> ResponseEntity.status(HttpStatus.ACCEPTED).build();
+            case FAILED -> ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+            case SUCCEEDED -> ResponseEntity.ok(tourMapper.toDTO(job.get().getResult()));
+        };
+    }
+
     @GetMapping("/{id}/optimized-route")
     public ResponseEntity<List<Delivery>> getOptimizedTour(@PathVariable Long id, @RequestParam Tour.AlgorithmType algorithm) {
         try {
@@ -125,6 +171,28 @@ public class TourController {
         }
     }
 
+    @GetMapping("/{id}/route-evaluation")
+    public ResponseEntity<RouteEvaluation> evaluateTour(@PathVariable Long id) {
+        try {
+            RouteEvaluation evaluation = tourService.evaluateTour(id);
+            return ResponseEntity.ok(evaluation);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/optimization-cache/stats")
+    public ResponseEntity<OptimizationCache.Stats> getOptimizationCacheStats() {
+        return ResponseEntity.ok(tourService.getOptimizationCacheStats());
+    }
+
+    @GetMapping("/portfolio/wins")
+    public ResponseEntity<Map<String, Map<Tour.AlgorithmType, Integer>>> getPortfolioWins() {
+        return ResponseEntity.ok(tourService.getPortfolioWins());
+    }
+
     @GetMapping("/date/{date}")
     public ResponseEntity<List<TourDTO>> getToursByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         try {
@@ -137,6 +205,18 @@ public class TourController {
         }
     }
 
+    @PostMapping("/date/{date}/optimize")
+    public ResponseEntity<BulkOptimizationDTO> optimizeToursByDate(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                                                   @RequestParam Tour.AlgorithmType algorithm,
+                                                                   @RequestParam(required = false) Long warehouseId) {
+        try {
+            BulkOptimizationDTO summary = optimizationJobService.optimizeToursForDate(date, warehouseId, algorithm);
+            return ResponseEntity.ok(summary);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/vehicle/{vehicleId}")
     public ResponseEntity<List<TourDTO>> getToursByVehicle(@PathVariable Long vehicleId) {
         try {
@@ -175,9 +255,15 @@ public class TourController {
 
 
     @PostMapping("/{tourId}/deliveries/{deliveryId}")
-    public ResponseEntity<Void> addDeliveryToTour(@PathVariable Long tourId, @PathVariable Long deliveryId) {
+    public ResponseEntity<Void> addDeliveryToTour(@PathVariable Long tourId, @PathVariable Long deliveryId,
+                                                  @RequestParam(defaultValue = "false") boolean insert) {
         try {
-            tourService.addDeliveryToTour(tourId, deliveryId);
+            // insert : placement à la position la moins chère de l'ordre existant, sans réoptimisation
+            if (insert) {
+                tourService.insertDeliveryIntoTour(tourId, deliveryId);
+            } else {
+                tourService.addDeliveryToTour(tourId, deliveryId);
+            }
             return ResponseEntity.ok().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
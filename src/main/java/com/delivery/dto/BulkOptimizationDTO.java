@@ -0,0 +1,38 @@
+package com.delivery.dto;
+
+import com.delivery.entity.Tour;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOptimizationDTO {
+    private LocalDate date;
+    private Long warehouseId;
+    private Tour.AlgorithmType algorithm;
+    private int tourCount;
+    private int succeeded;
+    private int failed;
+    private double totalDistance; // en km, toutes tournées optimisées confondues
+    private long elapsedMillis;
+    private List<TourResult> tours = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TourResult {
+        private Long tourId;
+        private int deliveryCount;
+        private int tripCount;
+        private Double distance;
+        private long solveMillis;
+        private boolean success;
+        private String error;
+    }
+}
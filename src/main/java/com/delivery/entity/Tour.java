@@ -35,8 +35,9 @@ public class Tour {
     @JsonIgnoreProperties({"tours"})
     private Warehouse warehouse;
 
+    // Null quand l'ordre enregistré a été modifié à la main et ne provient plus d'aucun algorithme
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false, length = 20)
+    @Column(length = 32)
     private AlgorithmType algorithmUsed;
 
     @Column(nullable = false)
@@ -48,7 +49,12 @@ public class Tour {
     private List<Delivery> deliveries = new ArrayList<>();
 
     public enum AlgorithmType {
-        NEAREST_NEIGHBOR, CLARKE_WRIGHT
+        NEAREST_NEIGHBOR, CLARKE_WRIGHT, NEAREST_NEIGHBOR_2OPT, SIMULATED_ANNEALING, EXACT, CLUSTER_FIRST, SWEEP,
+        CHEAPEST_INSERTION,
+        // Plus proche voisin amélioré par 2-opt puis Or-opt
+        NEAREST_NEIGHBOR_LOCAL_SEARCH,
+        // Course entre les optimiseurs ; la tournée enregistre l'algorithme gagnant
+        AUTO
     }
 
 
@@ -0,0 +1,124 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+public abstract class AbstractTourOptimizer implements TourOptimizer {
+
+    private final Logger logger = Logger.getLogger(getClass().getName());
+
+    // Fréquence des points de contrôle d'interruption dans les boucles de calcul
+    private static final int INTERRUPT_CHECK_MASK = 1023;
+
+    private Tour.AlgorithmType algorithmType;
+
+    protected AbstractTourOptimizer() {
+    }
+
+    protected AbstractTourOptimizer(Tour.AlgorithmType algorithmType) {
+        this.algorithmType = algorithmType;
+    }
+
+    @Override
+    public Tour.AlgorithmType getAlgorithmType() {
+        return algorithmType;
+    }
+
+    // Un décorateur (2-opt, Or-opt...) n'a pas d'algorithme propre : le contexte le déclare
+    public void setAlgorithmType(Tour.AlgorithmType algorithmType) {
+        this.algorithmType = algorithmType;
+    }
+
+    @Override
+    public List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        if (deliveries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Une seule tournée : si le véhicule impose plusieurs voyages, la demande est refusée
+        // plutôt que d'écarter en silence les livraisons des autres voyages
+        DistanceMatrix matrix = createMatrix(warehouse, deliveries);
+        int[][] routes = calculateRoutes(matrix, deliveries, vehicle, null);
+        if (routes.length != 1) {
+            throw new IllegalStateException("Vehicle constraints require " + routes.length + " trips for "
+                    + deliveries.size() + " deliveries: use calculateTrips");
+        }
+        return toDeliveries(routes[0], deliveries);
+    }
+
+    @Override
+    public TripPlan calculateTrips(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        return calculateTrips(warehouse, deliveries, vehicle, null);
+    }
+
+    @Override
+    public TripPlan calculateTrips(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        if (deliveries.isEmpty()) {
+            return new TripPlan(new ArrayList<>());
+        }
+
+        DistanceMatrix matrix = createMatrix(warehouse, deliveries);
+        List<Trip> trips = new ArrayList<>();
+        for (int[] route : calculateRoutes(matrix, deliveries, vehicle, deadline)) {
+            trips.add(Trip.of(route, matrix, deliveries));
+        }
+        return new TripPlan(trips);
+    }
+
+    @Override
+    public Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries) {
+        // L'ordre reçu est évalué tel quel : une tournée déjà optimisée n'est pas recalculée
+        double totalDistance = RouteEvaluation.of(warehouse, deliveries).getTotalDistance();
+
+        logger.info("Total distance calculated: " + totalDistance + " km");
+        return totalDistance;
+    }
+
+    // Un optimiseur anytime redéfinit cette méthode pour s'arrêter à l'échéance
+    protected int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        return calculateRoutes(matrix, deliveries, vehicle);
+    }
+
+    // Tournées d'un autre optimiseur en lui transmettant l'échéance s'il sait l'utiliser
+    static int[][] calculateRoutes(TourOptimizer optimizer, DistanceMatrix matrix, List<Delivery> deliveries,
+                                   Vehicle vehicle, Instant deadline) {
+        if (optimizer instanceof AbstractTourOptimizer anytime) {
+            return anytime.calculateRoutes(matrix, deliveries, vehicle, deadline);
+        }
+        return optimizer.calculateRoutes(matrix, deliveries, vehicle);
+    }
+
+    // Par défaut une matrice dense ; un optimiseur peut préférer le calcul à la demande
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        return DistanceMatrix.of(warehouse, deliveries);
+    }
+
+    // Point de contrôle des boucles de calcul : un candidat abandonné par PortfolioOptimizer est interrompu
+    // et s'arrête ici au lieu d'occuper le pool jusqu'à son terme
+    protected static void checkInterrupted(long iteration) {
+        if ((iteration & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Optimization interrupted");
+        }
+    }
+
+    static List<Delivery> toDeliveries(int[] route, List<Delivery> deliveries) {
+        List<Delivery> optimizedRoute = new ArrayList<>(route.length);
+        for (int node : route) {
+            optimizedRoute.add(deliveries.get(node - 1));
+        }
+
+        // Assigner l'ordre aux livraisons
+        for (int i = 0; i < optimizedRoute.size(); i++) {
+            optimizedRoute.get(i).setOrder(i + 1);
+        }
+        return optimizedRoute;
+    }
+}
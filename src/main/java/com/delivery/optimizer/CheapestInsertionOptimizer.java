@@ -0,0 +1,275 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+// Insertion la moins chère : la tournée part de l'entrepôt seul et, à chaque étape, la livraison dont
+// l'insertion coûte le moins est placée sur l'arête correspondante. Le meilleur coût de chaque livraison
+// non placée est gardé dans un tas min indexé ; seules les arêtes autour de ses k plus proches voisins,
+// de la livraison placée la plus proche et de l'entrepôt sont examinées, d'où O(n · k log n) au lieu de O(n³).
+public class CheapestInsertionOptimizer extends AbstractTourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(CheapestInsertionOptimizer.class.getName());
+
+    public static final int DEFAULT_NEIGHBORS = 10;
+
+    private final int neighborCount;
+
+    public CheapestInsertionOptimizer() {
+        this(DEFAULT_NEIGHBORS);
+    }
+
+    public CheapestInsertionOptimizer(int neighborCount) {
+        super(Tour.AlgorithmType.CHEAPEST_INSERTION);
+        if (neighborCount < 1) {
+            throw new IllegalArgumentException("neighborCount must be at least 1");
+        }
+        this.neighborCount = neighborCount;
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        logger.info("Calculating tour using Cheapest Insertion algorithm for " + deliveries.size() + " deliveries");
+
+        int[] route = new Insertion(matrix, neighborCount).run();
+
+        logger.info("Cheapest Insertion optimization completed. Route with " + route.length + " deliveries");
+        return route;
+    }
+
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        return DistanceMatrix.forSize(warehouse, deliveries);
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        // Voisins et voisins inverses, liste chaînée de la tournée et tas indexé
+        long matrix = DistanceMatrix.forSizeBytes(deliveryCount);
+        return matrix + 8L * neighborCount * (deliveryCount + 1) + 64L * (deliveryCount + 1);
+    }
+
+    // État d'une construction : tournée en liste doublement chaînée sur les nœuds de la matrice
+    private static final class Insertion {
+
+        private final DistanceMatrix matrix;
+        private final int n;
+
+        private final int[] next;
+        private final int[] prev;
+        private final boolean[] routed;
+
+        // neighbors[u * k + slot] : k plus proches voisins de u ; reverse : les nœuds qui ont u pour voisin
+        private final int[] neighbors;
+        private final int[] neighborCounts;
+        private final int k;
+        private final int[] reverseStart;
+        private final int[] reverse;
+
+        // Index des livraisons déjà placées : toute livraison a au moins un point d'ancrage proche
+        private final KdTree placed;
+
+        // Meilleure insertion connue de chaque livraison non placée : entre bestFrom et bestTo
+        private final double[] cost;
+        private final int[] bestFrom;
+        private final int[] bestTo;
+
+        // Tas min indexé sur cost : heap[i] = nœud, position[nœud] = i (-1 hors du tas)
+        private final int[] heap;
+        private final int[] position;
+        private int heapSize;
+
+        Insertion(DistanceMatrix matrix, int neighborCount) {
+            this.matrix = matrix;
+            this.n = matrix.deliveryCount();
+            this.next = new int[n + 1];
+            this.prev = new int[n + 1];
+            this.routed = new boolean[n + 1];
+            this.cost = new double[n + 1];
+            this.bestFrom = new int[n + 1];
+            this.bestTo = new int[n + 1];
+            this.heap = new int[n];
+            this.position = new int[n + 1];
+
+            this.k = Math.min(neighborCount, Math.max(0, n - 1));
+            this.neighbors = new int[(n + 1) * k];
+            this.neighborCounts = new int[n + 1];
+            this.placed = KdTree.of(matrix);
+            if (k > 0) {
+                int[] buffer = new int[k];
+                for (int u = 1; u <= n; u++) {
+                    checkInterrupted(u);
+                    int found = placed.nearest(u, k, buffer);
+                    System.arraycopy(buffer, 0, neighbors, u * k, found);
+                    neighborCounts[u] = found;
+                }
+            }
+            for (int u = 1; u <= n; u++) {
+                placed.remove(u);
+            }
+
+            // Listes inverses à plat, rangées par nœud
+            this.reverseStart = new int[n + 2];
+            for (int u = 1; u <= n; u++) {
+                for (int slot = 0; slot < neighborCounts[u]; slot++) {
+                    reverseStart[neighbors[u * k + slot] + 1]++;
+                }
+            }
+            for (int v = 1; v <= n + 1; v++) {
+                reverseStart[v] += reverseStart[v - 1];
+            }
+            this.reverse = new int[reverseStart[n + 1]];
+            int[] fill = reverseStart.clone();
+            for (int u = 1; u <= n; u++) {
+                for (int slot = 0; slot < neighborCounts[u]; slot++) {
+                    reverse[fill[neighbors[u * k + slot]]++] = u;
+                }
+            }
+        }
+
+        int[] run() {
+            // Tournée initiale : l'entrepôt seul, bouclé sur lui-même
+            next[DistanceMatrix.DEPOT] = DistanceMatrix.DEPOT;
+            prev[DistanceMatrix.DEPOT] = DistanceMatrix.DEPOT;
+            routed[DistanceMatrix.DEPOT] = true;
+            for (int u = 1; u <= n; u++) {
+                recompute(u);
+                push(u);
+            }
+
+            long iterations = 0;
+            while (heapSize > 0) {
+                checkInterrupted(iterations++);
+                int u = heap[0];
+                // Arête disparue depuis le calcul : le coût est réévalué et le nœud reclassé
+                if (next[bestFrom[u]] != bestTo[u]) {
+                    recompute(u);
+                    update(u);
+                    continue;
+                }
+                pop();
+                insert(u, bestFrom[u]);
+            }
+
+            int[] route = new int[n];
+            int node = next[DistanceMatrix.DEPOT];
+            for (int step = 0; step < n; step++) {
+                route[step] = node;
+                node = next[node];
+            }
+            return route;
+        }
+
+        private void insert(int u, int a) {
+            int b = next[a];
+            next[a] = u;
+            prev[u] = a;
+            next[u] = b;
+            prev[b] = u;
+            routed[u] = true;
+            placed.restore(u);
+
+            // Seules les livraisons qui ont u pour voisin voient les nouvelles arêtes (a, u) et (u, b)
+            for (int i = reverseStart[u]; i < reverseStart[u + 1]; i++) {
+                int w = reverse[i];
+                if (!routed[w] && (consider(w, a) | consider(w, u))) {
+                    siftUp(position[w]);
+                }
+            }
+        }
+
+        private void recompute(int u) {
+            cost[u] = Double.POSITIVE_INFINITY;
+            consider(u, DistanceMatrix.DEPOT);
+            consider(u, prev[DistanceMatrix.DEPOT]);
+            int anchor = placed.nearest(u);
+            if (anchor > 0) {
+                consider(u, prev[anchor]);
+                consider(u, anchor);
+            }
+            for (int slot = 0; slot < neighborCounts[u]; slot++) {
+                int v = neighbors[u * k + slot];
+                if (routed[v]) {
+                    consider(u, prev[v]);
+                    consider(u, v);
+                }
+            }
+        }
+
+        // Insertion de u sur l'arête (a, next[a]) ; retourne vrai si elle améliore le meilleur coût
+        private boolean consider(int u, int a) {
+            int b = next[a];
+            double delta = matrix.distance(a, u) + matrix.distance(u, b) - matrix.distance(a, b);
+            if (delta < cost[u]) {
+                cost[u] = delta;
+                bestFrom[u] = a;
+                bestTo[u] = b;
+                return true;
+            }
+            return false;
+        }
+
+        private void push(int u) {
+            heap[heapSize] = u;
+            position[u] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        private void pop() {
+            int top = heap[0];
+            position[top] = -1;
+            int last = heap[--heapSize];
+            if (heapSize > 0) {
+                heap[0] = last;
+                position[last] = 0;
+                siftDown(0);
+            }
+        }
+
+        private void update(int u) {
+            siftUp(position[u]);
+            siftDown(position[u]);
+        }
+
+        private void siftUp(int i) {
+            int node = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (cost[heap[parent]] <= cost[node]) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = node;
+            position[node] = i;
+        }
+
+        private void siftDown(int i) {
+            int node = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && cost[heap[child + 1]] < cost[heap[child]]) {
+                    child++;
+                }
+                if (cost[heap[child]] >= cost[node]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = node;
+            position[node] = i;
+        }
+    }
+}
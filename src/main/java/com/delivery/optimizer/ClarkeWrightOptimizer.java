@@ -1,234 +1,511 @@
 package com.delivery.optimizer;
 
 import com.delivery.entity.Delivery;
-import com.delivery.entity.Warehouse;
+import com.delivery.entity.Tour;
 import com.delivery.entity.Vehicle;
-import org.springframework.stereotype.Component;
+import com.delivery.entity.Warehouse;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 
-public class ClarkeWrightOptimizer implements TourOptimizer {
+public class ClarkeWrightOptimizer extends AbstractTourOptimizer {
 
     private static final Logger logger = Logger.getLogger(ClarkeWrightOptimizer.class.getName());
 
+    // Une paire est codée sur 32 bits (16 bits par indice)
+    static final int MAX_DELIVERIES = 0xFFFF;
+
+    // Au-delà, seules les économies entre k plus proches voisins sont générées
+    public static final int DEFAULT_GRANULAR_THRESHOLD = 1000;
+    public static final int DEFAULT_GRANULAR_NEIGHBORS = 25;
+
+    // Au-delà, les tournées restantes sont simplement enchaînées (O(r²) paires sinon)
+    private static final int MAX_ENDPOINT_ROUTES = 1024;
+
+    // En dessous, le découpage fork-join coûte plus cher que le calcul des économies
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final int granularThreshold;
+    private final int granularNeighbors;
+
+    public ClarkeWrightOptimizer() {
+        this(DEFAULT_GRANULAR_THRESHOLD, DEFAULT_GRANULAR_NEIGHBORS);
+    }
+
+    public ClarkeWrightOptimizer(int granularThreshold, int granularNeighbors) {
+        super(Tour.AlgorithmType.CLARKE_WRIGHT);
+        if (granularNeighbors < 1) {
+            throw new IllegalArgumentException("Le nombre de voisins doit être positif");
+        }
+        this.granularThreshold = granularThreshold;
+        this.granularNeighbors = granularNeighbors;
+    }
+
     @Override
-    public List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
-        logger.info("Calculating tour using Clarke & Wright algorithm for " + deliveries.size() + " deliveries");
+    public long estimateMemoryBytes(int deliveryCount) {
+        if (deliveryCount > MAX_DELIVERIES) {
+            return Long.MAX_VALUE;
+        }
+        long n = deliveryCount;
+        // Granulaire : n·k économies (clé et paire) ; sinon matrice dense et n² / 2 clés
+        return isGranular(deliveryCount)
+                ? n * granularNeighbors * 20L + 32L * n
+                : DistanceMatrix.denseBytes(deliveryCount) + Long.BYTES * n * (n - 1) / 2;
+    }
 
-        if (deliveries.isEmpty()) {
-            return new ArrayList<>();
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        // Le mode granulaire ne lit que O(n·k) distances : pas de matrice n²
+        return isGranular(deliveries.size())
+                ? DistanceMatrix.onDemand(warehouse, deliveries)
+                : DistanceMatrix.of(warehouse, deliveries);
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        // Une seule tournée demandée : refusée si le véhicule en impose plusieurs, aucune n'est écartée
+        int[][] routes = calculateRoutes(matrix, deliveries, vehicle);
+        if (routes.length > 1) {
+            throw new IllegalStateException("Vehicle constraints split " + deliveries.size() + " deliveries into "
+                    + routes.length + " Clarke & Wright routes: use calculateRoutes");
         }
+        return routes[0];
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        logger.info("Calculating tour using Clarke & Wright algorithm for " + deliveries.size() + " deliveries");
 
         if (deliveries.size() == 1) {
             // Cas simple : une seule livraison
-            deliveries.get(0).setOrder(1);
-            return deliveries;
+            return new int[][]{{1}};
         }
 
+        boolean granular = isGranular(matrix.deliveryCount());
+
         // Étape 1: Calculer les économies
-        List<Savings> savings = calculateSavings(warehouse, deliveries);
+        SavingsList savings = granular ? calculateGranularSavings(matrix) : calculateSavings(matrix);
 
         // Étape 2: Initialiser les tours individuelles
-        List<List<Delivery>> tours = initializeIndividualTours(deliveries);
+        Routes routes = new Routes(matrix, deliveries);
 
         // Étape 3: Fusionner les tours par ordre d'économie décroissante
-        tours = mergeTours(warehouse, tours, savings, vehicle);
-
-        // Étape 4: Retourner la tournée optimisée (on prend la première tournée fusionnée)
-        List<Delivery> optimizedRoute = tours.get(0);
+        mergeTours(routes, savings, vehicle);
+
+        // En mode granulaire, des tournées peuvent rester isolées faute d'économie entre elles :
+        // on complète avec les économies entre leurs extrémités
+        if (granular && routes.count() > 1) {
+            if (routes.count() <= MAX_ENDPOINT_ROUTES) {
+                mergeTours(routes, calculateEndpointSavings(matrix, routes), vehicle);
+            } else {
+                chainRemainingRoutes(routes, vehicle);
+            }
+        }
 
-        // Assigner l'ordre aux livraisons
-        for (int i = 0; i < optimizedRoute.size(); i++) {
-            optimizedRoute.get(i).setOrder(i + 1);
+        // Étape 4: Retourner toutes les tournées, les contraintes du véhicule pouvant en imposer plusieurs
+        int[] roots = routes.roots();
+        int[][] optimizedRoutes = new int[roots.length][];
+        for (int r = 0; r < roots.length; r++) {
+            optimizedRoutes[r] = routes.toArray(roots[r]);
         }
 
-        logger.info("Clarke & Wright optimization completed. Route with " + optimizedRoute.size() + " deliveries");
-        return optimizedRoute;
+        logger.info("Clarke & Wright optimization completed. " + optimizedRoutes.length + " route(s) for "
+                + deliveries.size() + " deliveries");
+        return optimizedRoutes;
     }
 
-    @Override
-    public Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries) {
-        if (deliveries.isEmpty()) {
-            return 0.0;
+    private boolean isGranular(int deliveryCount) {
+        return deliveryCount >= granularThreshold;
+    }
+
+    private SavingsList calculateSavings(DistanceMatrix matrix) {
+        int n = matrix.deliveryCount();
+        if (n > MAX_DELIVERIES) {
+            throw new IllegalArgumentException("Clarke & Wright limité à " + MAX_DELIVERIES + " livraisons");
         }
 
-        List<Delivery> optimizedDeliveries = calculateOptimalTour(warehouse, deliveries, null);
-        double totalDistance = 0.0;
+        long[] keys = new long[(int) ((long) n * (n - 1) / 2)];
 
-        // Distance entre l'entrepôt et la première livraison
-        totalDistance += calculateDistance(
-                warehouse.getLatitude(), warehouse.getLongitude(),
-                optimizedDeliveries.get(0).getLatitude(), optimizedDeliveries.get(0).getLongitude()
-        );
+        IntStream rows = IntStream.rangeClosed(1, n - 1);
+        if (n >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            int offset = (int) ((long) (i - 1) * n - (long) (i - 1) * i / 2);
+            double distWarehouseD1 = matrix.distance(DistanceMatrix.DEPOT, i);
+            for (int j = i + 1; j <= n; j++) {
+                double saving = distWarehouseD1 + matrix.distance(DistanceMatrix.DEPOT, j) - matrix.distance(i, j);
+                keys[offset++] = encode(saving, (i << 16) | j);
+            }
+        });
 
-        // Distances entre les livraisons
-        for (int i = 0; i < optimizedDeliveries.size() - 1; i++) {
-            totalDistance += calculateDistance(
-                    optimizedDeliveries.get(i).getLatitude(), optimizedDeliveries.get(i).getLongitude(),
-                    optimizedDeliveries.get(i + 1).getLatitude(), optimizedDeliveries.get(i + 1).getLongitude()
-            );
+        // Tri croissant : le parcours se fait ensuite de la fin vers le début
+        Arrays.parallelSort(keys);
+        return new PackedSavings(keys);
+    }
+
+    // Économies restreintes aux k plus proches voisins de chaque livraison : O(n·k) en mémoire
+    private SavingsList calculateGranularSavings(DistanceMatrix matrix) {
+        int n = matrix.deliveryCount();
+        int k = Math.min(granularNeighbors, n - 1);
+
+        KdTree tree = KdTree.of(matrix);
+        int[] neighbors = new int[n * k];
+        int[] counts = new int[n + 1];
+        int[] buffer = new int[k];
+        for (int i = 1; i <= n; i++) {
+            counts[i] = tree.nearest(i, k, buffer);
+            System.arraycopy(buffer, 0, neighbors, (i - 1) * k, counts[i]);
         }
 
-        // Distance entre la dernière livraison et l'entrepôt
-        totalDistance += calculateDistance(
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLatitude(),
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLongitude(),
-                warehouse.getLatitude(), warehouse.getLongitude()
-        );
+        double[] depotDistances = new double[n + 1];
+        for (int i = 1; i <= n; i++) {
+            depotDistances[i] = matrix.distance(DistanceMatrix.DEPOT, i);
+        }
 
-        logger.info("Total distance calculated: " + totalDistance + " km");
-        return totalDistance;
-    }
+        int[] firsts = new int[n * k];
+        int[] seconds = new int[n * k];
+        long[] keys = new long[n * k];
+        int size = 0;
+        for (int i = 1; i <= n; i++) {
+            for (int slot = 0; slot < counts[i]; slot++) {
+                int j = neighbors[(i - 1) * k + slot];
+                // Une paire voisine dans les deux sens n'est générée qu'une fois
+                if (j < i && contains(neighbors, (j - 1) * k, counts[j], i)) {
+                    continue;
+                }
+                double saving = depotDistances[i] + depotDistances[j] - matrix.distance(i, j);
+                firsts[size] = i;
+                seconds[size] = j;
+                keys[size] = encode(saving, size);
+                size++;
+            }
+        }
 
-    private List<Savings> calculateSavings(Warehouse warehouse, List<Delivery> deliveries) {
-        List<Savings> savings = new ArrayList<>();
+        keys = Arrays.copyOf(keys, size);
+        Arrays.parallelSort(keys);
+        return new IndexedSavings(keys, firsts, seconds);
+    }
 
-        for (int i = 0; i < deliveries.size(); i++) {
-            for (int j = i + 1; j < deliveries.size(); j++) {
-                Delivery d1 = deliveries.get(i);
-                Delivery d2 = deliveries.get(j);
+    private SavingsList calculateEndpointSavings(DistanceMatrix matrix, Routes routes) {
+        int[] roots = routes.roots();
+        int[] endpoints = new int[roots.length * 2];
+        int count = 0;
+        for (int root : roots) {
+            endpoints[count++] = routes.head(root);
+            if (routes.size(root) > 1) {
+                endpoints[count++] = routes.tail(root);
+            }
+        }
 
-                double distWarehouseD1 = calculateDistance(
-                        warehouse.getLatitude(), warehouse.getLongitude(),
-                        d1.getLatitude(), d1.getLongitude()
-                );
+        int pairs = count * (count - 1) / 2;
+        int[] firsts = new int[pairs];
+        int[] seconds = new int[pairs];
+        long[] keys = new long[pairs];
+        int size = 0;
+        for (int a = 0; a < count; a++) {
+            int i = endpoints[a];
+            for (int b = a + 1; b < count; b++) {
+                int j = endpoints[b];
+                double saving = matrix.distance(DistanceMatrix.DEPOT, i) + matrix.distance(DistanceMatrix.DEPOT, j)
+                        - matrix.distance(i, j);
+                firsts[size] = i;
+                seconds[size] = j;
+                keys[size] = encode(saving, size);
+                size++;
+            }
+        }
 
-                double distWarehouseD2 = calculateDistance(
-                        warehouse.getLatitude(), warehouse.getLongitude(),
-                        d2.getLatitude(), d2.getLongitude()
-                );
+        Arrays.parallelSort(keys);
+        return new IndexedSavings(keys, firsts, seconds);
+    }
 
-                double distD1D2 = calculateDistance(
-                        d1.getLatitude(), d1.getLongitude(),
-                        d2.getLatitude(), d2.getLongitude()
-                );
+    private void chainRemainingRoutes(Routes routes, Vehicle vehicle) {
+        int[] roots = routes.roots();
+        int current = roots[0];
+        for (int r = 1; r < roots.length; r++) {
+            checkInterrupted(r);
+            int i = routes.tail(current);
+            int j = routes.head(roots[r]);
+            if (canMerge(routes, i, j, vehicle)) {
+                current = routes.merge(i, j);
+            } else {
+                current = roots[r];
+            }
+        }
+    }
 
-                double saving = distWarehouseD1 + distWarehouseD2 - distD1D2;
-                savings.add(new Savings(d1, d2, saving));
+    private static boolean contains(int[] values, int offset, int length, int value) {
+        for (int i = offset; i < offset + length; i++) {
+            if (values[i] == value) {
+                return true;
             }
         }
+        return false;
+    }
 
-        // Trier par économie décroissante
-        savings.sort(Comparator.comparingDouble(Savings::getSaving).reversed());
-        return savings;
+    // 32 bits de poids fort = économie (float, ordre préservé), 32 bits de poids faible = référence
+    // complémentée pour qu'à économie égale l'entrée générée en premier reste devant
+    private static long encode(double saving, int reference) {
+        int bits = Float.floatToIntBits((float) saving);
+        if (bits < 0) {
+            bits ^= 0x7FFFFFFF;
+        }
+        return ((long) bits << 32) | (0xFFFFFFFFL - (reference & 0xFFFFFFFFL));
     }
 
-    private List<List<Delivery>> initializeIndividualTours(List<Delivery> deliveries) {
-        return deliveries.stream()
-                .map(d -> new ArrayList<>(List.of(d)))
-                .collect(Collectors.toList());
+    private static int reference(long key) {
+        return (int) (0xFFFFFFFFL - (key & 0xFFFFFFFFL));
     }
 
-    private List<List<Delivery>> mergeTours(Warehouse warehouse, List<List<Delivery>> tours,
-                                            List<Savings> savings, Vehicle vehicle) {
-        for (Savings saving : savings) {
-            List<Delivery> tour1 = findTourContaining(tours, saving.getDelivery1());
-            List<Delivery> tour2 = findTourContaining(tours, saving.getDelivery2());
+    private void mergeTours(Routes routes, SavingsList savings, Vehicle vehicle) {
+        long[] keys = savings.keys;
 
-            if (tour1 != null && tour2 != null && tour1 != tour2) {
-                if (canMerge(warehouse, tour1, tour2, vehicle)) {
-                    List<Delivery> mergedTour = mergeTwoTours(tour1, tour2, saving);
-                    tours.remove(tour1);
-                    tours.remove(tour2);
-                    tours.add(mergedTour);
+        // Parcours par économie décroissante
+        for (int k = keys.length - 1; k >= 0; k--) {
+            checkInterrupted(k);
+            int i = savings.first(keys[k]);
+            int j = savings.second(keys[k]);
 
-                    // Si toutes les livraisons sont dans une seule tournée, on arrête
-                    if (tours.size() == 1) {
-                        break;
-                    }
-                }
+            // Seules les extrémités de deux tournées distinctes peuvent être reliées
+            if (!routes.isEndpoint(i) || !routes.isEndpoint(j)) {
+                continue;
+            }
+            if (routes.find(i) == routes.find(j)) {
+                continue;
             }
-        }
 
-        return tours;
-    }
+            if (canMerge(routes, i, j, vehicle)) {
+                routes.merge(i, j);
 
-    private List<Delivery> findTourContaining(List<List<Delivery>> tours, Delivery delivery) {
-        return tours.stream()
-                .filter(tour -> tour.contains(delivery))
-                .findFirst()
-                .orElse(null);
+                // Si toutes les livraisons sont dans une seule tournée, on arrête
+                if (routes.count() == 1) {
+                    break;
+                }
+            }
+        }
     }
 
-    private boolean canMerge(Warehouse warehouse, List<Delivery> tour1, List<Delivery> tour2, Vehicle vehicle) {
+    // O(1) : les totaux de chaque tournée sont tenus à jour à chaque fusion
+    private boolean canMerge(Routes routes, int i, int j, Vehicle vehicle) {
         if (vehicle == null) return true;
 
+        int route1 = routes.find(i);
+        int route2 = routes.find(j);
+
         // Vérifier les contraintes de capacité
-        double totalWeight = tour1.stream().mapToDouble(Delivery::getWeight).sum() +
-                tour2.stream().mapToDouble(Delivery::getWeight).sum();
-        double totalVolume = tour1.stream().mapToDouble(Delivery::getVolume).sum() +
-                tour2.stream().mapToDouble(Delivery::getVolume).sum();
-        int totalDeliveries = tour1.size() + tour2.size();
+        double totalWeight = routes.weight(route1) + routes.weight(route2);
+        double totalVolume = routes.volume(route1) + routes.volume(route2);
+        int totalDeliveries = routes.size(route1) + routes.size(route2);
+
+        // Le rayon d'action borne la longueur de la tournée, retour à l'entrepôt compris
+        boolean withinRange = vehicle.getRange() == null || routes.mergedLength(i, j) <= vehicle.getRange();
 
         return totalWeight <= vehicle.getMaxWeight() &&
                 totalVolume <= vehicle.getMaxVolume() &&
-                totalDeliveries <= vehicle.getMaxDeliveries();
+                totalDeliveries <= vehicle.getMaxDeliveries() &&
+                withinRange;
     }
 
-    private List<Delivery> mergeTwoTours(List<Delivery> tour1, List<Delivery> tour2, Savings saving) {
-        // Vérifier si les livraisons sont aux extrémités des tours
-        boolean tour1StartsWithD1 = tour1.get(0).equals(saving.getDelivery1());
-        boolean tour1EndsWithD1 = tour1.get(tour1.size() - 1).equals(saving.getDelivery1());
-        boolean tour2StartsWithD2 = tour2.get(0).equals(saving.getDelivery2());
-        boolean tour2EndsWithD2 = tour2.get(tour2.size() - 1).equals(saving.getDelivery2());
+    // Tournées en cours de fusion, représentées par indices de la matrice (1..n).
+    // next/prev forment des listes doublement chaînées (0 = entrepôt), l'appartenance
+    // à une tournée est gérée par union-find et head/tail/size ainsi que les totaux
+    // (poids, volume, longueur) sont rangés sur la racine.
+    private static final class Routes {
+        private final DistanceMatrix matrix;
+        private final int[] next;
+        private final int[] prev;
+        private final int[] parent;
+        private final int[] head;
+        private final int[] tail;
+        private final int[] size;
+        private final double[] weight;
+        private final double[] volume;
+        private final double[] length;
+        private int count;
+
+        Routes(DistanceMatrix matrix, List<Delivery> deliveries) {
+            int n = matrix.deliveryCount();
+            this.matrix = matrix;
+            next = new int[n + 1];
+            prev = new int[n + 1];
+            parent = new int[n + 1];
+            head = new int[n + 1];
+            tail = new int[n + 1];
+            size = new int[n + 1];
+            weight = new double[n + 1];
+            volume = new double[n + 1];
+            length = new double[n + 1];
+            for (int node = 1; node <= n; node++) {
+                Delivery delivery = deliveries.get(node - 1);
+                parent[node] = node;
+                head[node] = node;
+                tail[node] = node;
+                size[node] = 1;
+                weight[node] = delivery.getWeight();
+                volume[node] = delivery.getVolume();
+                length[node] = 2 * matrix.distance(DistanceMatrix.DEPOT, node);
+            }
+            count = n;
+        }
+
+        int find(int node) {
+            while (parent[node] != node) {
+                parent[node] = parent[parent[node]];
+                node = parent[node];
+            }
+            return node;
+        }
+
+        boolean isEndpoint(int node) {
+            return prev[node] == 0 || next[node] == 0;
+        }
 
-        if (tour1EndsWithD1 && tour2StartsWithD2) {
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
-        } else if (tour1StartsWithD1 && tour2EndsWithD2) {
-            List<Delivery> merged = new ArrayList<>(tour2);
-            merged.addAll(tour1);
-            return merged;
-        } else if (tour1EndsWithD1 && tour2EndsWithD2) {
-            // Inverser la deuxième tournée
-            Collections.reverse(tour2);
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
-        } else if (tour1StartsWithD1 && tour2StartsWithD2) {
-            // Inverser la première tournée
-            Collections.reverse(tour1);
-            List<Delivery> merged = new ArrayList<>(tour1);
-            merged.addAll(tour2);
-            return merged;
+        int head(int route) { return head[route]; }
+        int tail(int route) { return tail[route]; }
+        int next(int node) { return next[node]; }
+        int size(int route) { return size[route]; }
+        double weight(int route) { return weight[route]; }
+        double volume(int route) { return volume[route]; }
+
+        // Longueur de la tournée obtenue en reliant les extrémités i et j : on retire
+        // les deux trajets vers l'entrepôt et on ajoute le trajet i -> j
+        double mergedLength(int i, int j) {
+            return length[find(i)] + length[find(j)]
+                    - matrix.distance(DistanceMatrix.DEPOT, i) - matrix.distance(DistanceMatrix.DEPOT, j)
+                    + matrix.distance(i, j);
         }
+        int count() { return count; }
+
+        // Relie les extrémités i et j de deux tournées distinctes ; retourne la racine fusionnée
+        int merge(int i, int j) {
+            double mergedLength = mergedLength(i, j);
+            int a = find(i);
+            int b = find(j);
+
+            // Orienter les tournées pour que i soit la queue de a et j la tête de b,
+            // en inversant au besoin la plus petite des deux
+            if (tail[a] != i && head[b] != j) {
+                // i est la tête de a et j la queue de b : il suffit d'enchaîner b puis a
+                int tmp = a; a = b; b = tmp;
+                tmp = i; i = j; j = tmp;
+            } else if (tail[a] != i) {
+                // i est la tête de a et j la tête de b
+                if (size[a] <= size[b]) {
+                    reverse(a);
+                } else {
+                    reverse(b);
+                    int tmp = a; a = b; b = tmp;
+                    tmp = i; i = j; j = tmp;
+                }
+            } else if (head[b] != j) {
+                // i est la queue de a et j la queue de b
+                if (size[b] <= size[a]) {
+                    reverse(b);
+                } else {
+                    reverse(a);
+                    int tmp = a; a = b; b = tmp;
+                    tmp = i; i = j; j = tmp;
+                }
+            }
 
-        // Si les conditions de fusion ne sont pas remplies, retourner tour1
-        return tour1;
+            next[i] = j;
+            prev[j] = i;
+
+            // Union par taille : la plus grande racine absorbe l'autre
+            int root = size[a] >= size[b] ? a : b;
+            int child = root == a ? b : a;
+            int newHead = head[a];
+            int newTail = tail[b];
+            parent[child] = root;
+            head[root] = newHead;
+            tail[root] = newTail;
+            size[root] = size[a] + size[b];
+            weight[root] = weight[a] + weight[b];
+            volume[root] = volume[a] + volume[b];
+            length[root] = mergedLength;
+            count--;
+            return root;
+        }
+
+        private void reverse(int route) {
+            int node = head[route];
+            while (node != 0) {
+                int following = next[node];
+                next[node] = prev[node];
+                prev[node] = following;
+                node = following;
+            }
+            int tmp = head[route];
+            head[route] = tail[route];
+            tail[route] = tmp;
+        }
+
+        int[] roots() {
+            int[] roots = new int[count];
+            int k = 0;
+            for (int node = 1; node < parent.length; node++) {
+                if (parent[node] == node) {
+                    roots[k++] = node;
+                }
+            }
+            return roots;
+        }
+
+        int[] toArray(int anyNode) {
+            int route = find(anyNode);
+            int[] result = new int[size[route]];
+            int k = 0;
+            for (int node = head[route]; node != 0; node = next[node]) {
+                result[k++] = node;
+            }
+            return result;
+        }
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Rayon de la Terre en km
+    // Économies triées par ordre croissant de clé, décodées en paires de nœuds
+    private abstract static class SavingsList {
+        final long[] keys;
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
+        SavingsList(long[] keys) {
+            this.keys = keys;
+        }
 
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        abstract int first(long key);
+        abstract int second(long key);
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    // Paire (i << 16 | j) directement dans la clé : aucun tableau annexe pour n² / 2 entrées
+    private static final class PackedSavings extends SavingsList {
+        PackedSavings(long[] keys) {
+            super(keys);
+        }
 
-        return R * c;
+        @Override
+        int first(long key) { return reference(key) >>> 16; }
+
+        @Override
+        int second(long key) { return reference(key) & 0xFFFF; }
     }
 
-    private static class Savings {
-        private final Delivery delivery1;
-        private final Delivery delivery2;
-        private final double saving;
+    // Indice d'entrée dans la clé, paires rangées dans deux tableaux
+    private static final class IndexedSavings extends SavingsList {
+        private final int[] firsts;
+        private final int[] seconds;
 
-        public Savings(Delivery delivery1, Delivery delivery2, double saving) {
-            this.delivery1 = delivery1;
-            this.delivery2 = delivery2;
-            this.saving = saving;
+        IndexedSavings(long[] keys, int[] firsts, int[] seconds) {
+            super(keys);
+            this.firsts = firsts;
+            this.seconds = seconds;
         }
 
-        public Delivery getDelivery1() { return delivery1; }
-        public Delivery getDelivery2() { return delivery2; }
-        public double getSaving() { return saving; }
+        @Override
+        int first(long key) { return firsts[reference(key)]; }
+
+        @Override
+        int second(long key) { return seconds[reference(key)]; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+// Grappes d'abord, tournées ensuite : les livraisons sont découpées par balayage autour de l'entrepôt
+// en secteurs de taille bornée, chaque secteur est résolu en parallèle par le délégué sur sa propre
+// petite matrice, puis les tournées sont recollées. Adapté aux instances de plusieurs milliers de livraisons.
+public class ClusterFirstOptimizer extends AbstractTourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(ClusterFirstOptimizer.class.getName());
+
+    // Taille maximale d'une grappe ; la capacité du véhicule est appliquée à l'intérieur de chaque grappe
+    public static final int DEFAULT_MAX_CLUSTER_SIZE = 200;
+
+    private final TourOptimizer delegate;
+    private final int maxClusterSize;
+
+    public ClusterFirstOptimizer(TourOptimizer delegate) {
+        this(delegate, DEFAULT_MAX_CLUSTER_SIZE);
+    }
+
+    public ClusterFirstOptimizer(TourOptimizer delegate, int maxClusterSize) {
+        super(Tour.AlgorithmType.CLUSTER_FIRST);
+        if (maxClusterSize < 1) {
+            throw new IllegalArgumentException("maxClusterSize must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxClusterSize = maxClusterSize;
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        // Une seule séquence : grappes limitées par la taille seulement, recollées dans l'ordre du balayage.
+        // Toutes les tournées du délégué sont reprises, même quand le véhicule en impose plusieurs par grappe
+        int[][] clusters = SweepPartition.partition(matrix, deliveries, null, maxClusterSize);
+        int[][][] solved = solveClusters(matrix, deliveries, vehicle, clusters, null);
+
+        int[] route = new int[matrix.deliveryCount()];
+        int length = 0;
+        int previous = DistanceMatrix.DEPOT;
+        for (int[][] cluster : solved) {
+            for (int[] part : cluster) {
+                if (part.length == 0) {
+                    continue;
+                }
+                // Chaque morceau est parcouru dans le sens qui le raccorde au plus court au précédent
+                boolean reverse = matrix.distance(previous, part[part.length - 1]) < matrix.distance(previous, part[0]);
+                for (int k = 0; k < part.length; k++) {
+                    route[length++] = part[reverse ? part.length - 1 - k : k];
+                }
+                previous = route[length - 1];
+            }
+        }
+        if (length != route.length) {
+            throw new IllegalStateException("Cluster-first route covers " + length + " of " + route.length + " deliveries");
+        }
+        return route;
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        return calculateRoutes(matrix, deliveries, vehicle, null);
+    }
+
+    @Override
+    protected int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        long start = System.nanoTime();
+        int[][] clusters = SweepPartition.partition(matrix, deliveries, null, maxClusterSize);
+        int[][][] solved = solveClusters(matrix, deliveries, vehicle, clusters, deadline);
+
+        List<int[]> routes = new ArrayList<>();
+        for (int[][] cluster : solved) {
+            for (int[] route : cluster) {
+                splitByCapacity(route, deliveries, vehicle, routes);
+            }
+        }
+
+        logger.info("Cluster-first optimization: " + deliveries.size() + " deliveries in " + clusters.length
+                + " cluster(s), " + routes.size() + " route(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return routes.toArray(new int[0][]);
+    }
+
+    // Un délégué qui ne découpe pas selon la capacité produit des tournées trop chargées : elles sont
+    // coupées en voyages consécutifs dans leur ordre de passage
+    private static void splitByCapacity(int[] route, List<Delivery> deliveries, Vehicle vehicle, List<int[]> routes) {
+        if (vehicle == null) {
+            routes.add(route);
+            return;
+        }
+
+        int from = 0;
+        double weight = 0.0;
+        double volume = 0.0;
+        for (int k = 0; k < route.length; k++) {
+            Delivery delivery = deliveries.get(route[k] - 1);
+            if (k > from && !vehicle.isValidForDelivery(weight + delivery.getWeight(),
+                    volume + delivery.getVolume(), k - from + 1)) {
+                routes.add(Arrays.copyOfRange(route, from, k));
+                from = k;
+                weight = 0.0;
+                volume = 0.0;
+            }
+            weight += delivery.getWeight();
+            volume += delivery.getVolume();
+        }
+        routes.add(from == 0 ? route : Arrays.copyOfRange(route, from, route.length));
+    }
+
+    // Grappes indépendantes : réparties sur le pool fork-join commun
+    private int[][][] solveClusters(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle,
+                                    int[][] clusters, Instant deadline) {
+        int[][][] solved = new int[clusters.length][][];
+        // Les workers fork-join ne voient pas l'interruption de l'appelant : elle est relayée grappe par grappe
+        Thread caller = Thread.currentThread();
+        IntStream.range(0, clusters.length).parallel().forEach(c -> {
+            if (caller.isInterrupted()) {
+                throw new CancellationException("Optimization interrupted");
+            }
+            int[] nodes = clusters[c];
+            DistanceMatrix clusterMatrix = matrix.subset(nodes, nodes.length < DistanceMatrix.DENSE_LIMIT);
+            List<Delivery> clusterDeliveries = new ArrayList<>(nodes.length);
+            for (int node : nodes) {
+                clusterDeliveries.add(deliveries.get(node - 1));
+            }
+
+            int[][] routes = calculateRoutes(delegate, clusterMatrix, clusterDeliveries, vehicle, deadline);
+
+            // Retour aux indices de la matrice complète
+            for (int[] route : routes) {
+                for (int k = 0; k < route.length; k++) {
+                    route[k] = nodes[route[k] - 1];
+                }
+            }
+            solved[c] = routes;
+        });
+        return solved;
+    }
+
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        // Seules les sous-matrices des grappes sont denses
+        return DistanceMatrix.forSize(warehouse, deliveries);
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        int clusterSize = Math.min(deliveryCount, maxClusterSize);
+        long perCluster = DistanceMatrix.denseBytes(clusterSize) + delegate.estimateMemoryBytes(clusterSize);
+        long matrix = DistanceMatrix.forSizeBytes(deliveryCount);
+        return matrix + 64L * deliveryCount + perCluster * Runtime.getRuntime().availableProcessors();
+    }
+}
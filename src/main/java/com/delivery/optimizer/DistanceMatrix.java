@@ -0,0 +1,181 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+public final class DistanceMatrix {
+
+    public static final int DEPOT = 0;
+
+    // Au-delà, les distances sont recalculées à la demande plutôt que stockées en n²
+    public static final int DENSE_LIMIT = 2000;
+
+    private static final double EARTH_RADIUS_KM = 6371; // Rayon de la Terre en km
+
+    // Plus grand tableau Java allouable : au-delà, la matrice dense déborderait l'indexation int
+    static final long MAX_DENSE_CELLS = Integer.MAX_VALUE - 8;
+
+    private final int size;
+    private final double[] latitudes;
+    private final double[] cosLatitudes;
+    private final double[] longitudes;
+    private final double[] distances;
+
+    private DistanceMatrix(int size, double[] latitudes, double[] longitudes, boolean dense) {
+        this.size = size;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cosLatitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            cosLatitudes[i] = Math.cos(latitudes[i]);
+        }
+
+        if (!dense || (long) size * size > MAX_DENSE_CELLS) {
+            // Mode à la demande : pas de stockage O(n²), chaque distance est recalculée
+            this.distances = null;
+            return;
+        }
+
+        // Matrice plate et symétrique : chaque paire n'est calculée qu'une seule fois
+        this.distances = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            for (int j = i + 1; j < size; j++) {
+                double d = haversine(i, j);
+                distances[row + j] = d;
+                distances[j * size + i] = d;
+            }
+        }
+    }
+
+    // L'entrepôt occupe l'indice 0, la livraison deliveries.get(k) l'indice k + 1.
+    // Au-delà d'environ 46 000 nœuds, la matrice dense n'est pas allouable : of() bascule alors à la demande
+    public static DistanceMatrix of(Warehouse warehouse, List<Delivery> deliveries) {
+        return create(warehouse, deliveries, true);
+    }
+
+    // Même indexation que of(), mais sans précalcul : adapté aux grandes instances
+    public static DistanceMatrix onDemand(Warehouse warehouse, List<Delivery> deliveries) {
+        return create(warehouse, deliveries, false);
+    }
+
+    // Dense sous DENSE_LIMIT livraisons, à la demande au-delà
+    public static DistanceMatrix forSize(Warehouse warehouse, List<Delivery> deliveries) {
+        return create(warehouse, deliveries, deliveries.size() < DENSE_LIMIT);
+    }
+
+    private static DistanceMatrix create(Warehouse warehouse, List<Delivery> deliveries, boolean dense) {
+        int size = deliveries.size() + 1;
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+
+        latitudes[DEPOT] = Math.toRadians(warehouse.getLatitude());
+        longitudes[DEPOT] = Math.toRadians(warehouse.getLongitude());
+        for (int k = 0; k < deliveries.size(); k++) {
+            Delivery delivery = deliveries.get(k);
+            latitudes[k + 1] = Math.toRadians(delivery.getLatitude());
+            longitudes[k + 1] = Math.toRadians(delivery.getLongitude());
+        }
+
+        return new DistanceMatrix(size, latitudes, longitudes, dense);
+    }
+
+    // Mémoire occupée par la matrice dense de n livraisons plus l'entrepôt
+    public static long denseBytes(int deliveryCount) {
+        long size = deliveryCount + 1L;
+        return Double.BYTES * size * size;
+    }
+
+    // Mémoire de la matrice retenue par forSize()
+    public static long forSizeBytes(int deliveryCount) {
+        return deliveryCount < DENSE_LIMIT ? denseBytes(deliveryCount) : 0L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int deliveryCount() {
+        return size - 1;
+    }
+
+    public boolean isDense() {
+        return distances != null;
+    }
+
+    public double distance(int from, int to) {
+        if (distances == null) {
+            return from == to ? 0.0 : haversine(from, to);
+        }
+        return distances[from * size + to];
+    }
+
+    // Coordonnées en radians, utilisées par les index spatiaux
+    double latitude(int node) {
+        return latitudes[node];
+    }
+
+    double longitude(int node) {
+        return longitudes[node];
+    }
+
+    // Angle polaire du nœud autour de l'entrepôt, dans une projection locale équirectangulaire
+    double angle(int node) {
+        double x = (longitudes[node] - longitudes[DEPOT]) * cosLatitudes[DEPOT];
+        double y = latitudes[node] - latitudes[DEPOT];
+        return Math.atan2(y, x);
+    }
+
+    // Sous-matrice : l'entrepôt puis les nœuds donnés, réindexés 1..k dans cet ordre
+    DistanceMatrix subset(int[] nodes, boolean dense) {
+        int subSize = nodes.length + 1;
+        double[] subLatitudes = new double[subSize];
+        double[] subLongitudes = new double[subSize];
+        subLatitudes[DEPOT] = latitudes[DEPOT];
+        subLongitudes[DEPOT] = longitudes[DEPOT];
+        for (int k = 0; k < nodes.length; k++) {
+            subLatitudes[k + 1] = latitudes[nodes[k]];
+            subLongitudes[k + 1] = longitudes[nodes[k]];
+        }
+        return new DistanceMatrix(subSize, subLatitudes, subLongitudes, dense);
+    }
+
+    // Distance d'une tournée fermée : entrepôt -> route[0] -> ... -> route[n-1] -> entrepôt
+    public double routeDistance(int[] route) {
+        if (route.length == 0) {
+            return 0.0;
+        }
+
+        double total = distance(DEPOT, route[0]);
+        for (int i = 0; i < route.length - 1; i++) {
+            total += distance(route[i], route[i + 1]);
+        }
+        total += distance(route[route.length - 1], DEPOT);
+        return total;
+    }
+
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+
+    private double haversine(int i, int j) {
+        double sinLat = Math.sin((latitudes[j] - latitudes[i]) / 2);
+        double sinLon = Math.sin((longitudes[j] - longitudes[i]) / 2);
+
+        double a = sinLat * sinLat + cosLatitudes[i] * cosLatitudes[j] * sinLon * sinLon;
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+}
@@ -0,0 +1,106 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+// Programmation dynamique de Held-Karp sur les sous-ensembles : tournée optimale exacte,
+// en O(2^n · n²) temps et O(2^n · n) mémoire, réservée aux petites tournées.
+public class HeldKarpOptimizer extends AbstractTourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(HeldKarpOptimizer.class.getName());
+
+    // 2^16 · 16 états : 8 Mo de distances, au-delà la mémoire double à chaque livraison
+    public static final int MAX_DELIVERIES = 16;
+
+    public HeldKarpOptimizer() {
+        super(Tour.AlgorithmType.EXACT);
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        if (deliveryCount > MAX_DELIVERIES) {
+            return Long.MAX_VALUE;
+        }
+        // Coût (8 octets) et parent (1 octet) par état
+        return (1L << deliveryCount) * deliveryCount * 9L + DistanceMatrix.denseBytes(deliveryCount);
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        int n = matrix.deliveryCount();
+        if (n > MAX_DELIVERIES) {
+            throw new IllegalArgumentException("Held-Karp is limited to " + MAX_DELIVERIES
+                    + " deliveries, got " + n);
+        }
+        if (n == 0) {
+            return new int[0];
+        }
+
+        // Copie locale des distances : la boucle interne reste sur un tableau primitif
+        int size = n + 1;
+        double[] distances = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                distances[i * size + j] = matrix.distance(i, j);
+            }
+        }
+
+        // cost[mask * n + j] : plus court chemin depuis l'entrepôt visitant mask et finissant en j
+        int full = (1 << n) - 1;
+        double[] cost = new double[(full + 1) * n];
+        byte[] parent = new byte[(full + 1) * n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        for (int j = 0; j < n; j++) {
+            cost[(1 << j) * n + j] = distances[j + 1];
+        }
+
+        for (int mask = 1; mask <= full; mask++) {
+            for (int j = 0; j < n; j++) {
+                double current = cost[mask * n + j];
+                if ((mask & (1 << j)) == 0 || current == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int row = (j + 1) * size + 1;
+                for (int k = 0; k < n; k++) {
+                    if ((mask & (1 << k)) != 0) {
+                        continue;
+                    }
+                    int state = (mask | (1 << k)) * n + k;
+                    double candidate = current + distances[row + k];
+                    if (candidate < cost[state]) {
+                        cost[state] = candidate;
+                        parent[state] = (byte) j;
+                    }
+                }
+            }
+        }
+
+        // Fermer la tournée vers l'entrepôt puis remonter les parents
+        int last = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < n; j++) {
+            double total = cost[full * n + j] + distances[(j + 1) * size];
+            if (total < best) {
+                best = total;
+                last = j;
+            }
+        }
+
+        int[] route = new int[n];
+        int mask = full;
+        for (int step = n - 1; step >= 0; step--) {
+            route[step] = last + 1;
+            int previous = parent[mask * n + last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+
+        logger.info("Held-Karp optimization completed. Optimal route of " + n + " deliveries, " + best + " km");
+        return route;
+    }
+}
@@ -0,0 +1,336 @@
+package com.delivery.optimizer;
+
+// Arbre k-d sur les livraisons d'une DistanceMatrix, avec suppression logique.
+// Les points sont projetés sur la sphère unité (x, y, z) : la distance euclidienne (corde)
+// croît avec la distance haversine, le plus proche voisin est donc exact.
+public final class KdTree {
+
+    private final double[] coords;   // coords[node * 3 + axis], indexé par nœud de la matrice
+    private final int[] points;      // nœuds rangés selon la disposition implicite de l'arbre
+    private final byte[] axes;       // axe de coupe de chaque position
+    private final int[] alive;       // nombre de points non supprimés dans le sous-arbre de chaque position
+    private final int[] positions;   // position de chaque nœud dans points
+    private final boolean[] removed;
+    private int aliveCount;
+
+    // État de la recherche en cours (l'arbre n'est utilisé que par un seul thread)
+    private int bestNode;
+    private double bestDistance;
+    private int[] heapNodes = new int[0];        // tas max des k meilleurs candidats
+    private double[] heapDistances = new double[0];
+    private int heapSize;
+    private int excludedNode;
+
+    private KdTree(DistanceMatrix matrix, int[] nodes) {
+        int size = matrix.size();
+        int n = nodes.length;
+
+        // Seuls l'entrepôt et les nœuds indexés peuvent servir de requête
+        this.coords = new double[size * 3];
+        project(matrix, DistanceMatrix.DEPOT);
+        for (int node : nodes) {
+            project(matrix, node);
+        }
+
+        this.points = nodes.clone();
+        this.axes = new byte[n];
+        this.alive = new int[n];
+        this.positions = new int[size];
+        this.removed = new boolean[size];
+        this.aliveCount = n;
+
+        build(0, n);
+        for (int pos = 0; pos < n; pos++) {
+            positions[points[pos]] = pos;
+        }
+    }
+
+    private void project(DistanceMatrix matrix, int node) {
+        double cosLat = Math.cos(matrix.latitude(node));
+        coords[node * 3] = cosLat * Math.cos(matrix.longitude(node));
+        coords[node * 3 + 1] = cosLat * Math.sin(matrix.longitude(node));
+        coords[node * 3 + 2] = Math.sin(matrix.latitude(node));
+    }
+
+    // Indexe toutes les livraisons (indices 1..n) ; l'entrepôt n'est jamais retourné
+    public static KdTree of(DistanceMatrix matrix) {
+        int[] nodes = new int[matrix.deliveryCount()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = i + 1;
+        }
+        return new KdTree(matrix, nodes);
+    }
+
+    // Indexe uniquement les livraisons données (par exemple celles d'une tournée)
+    public static KdTree of(DistanceMatrix matrix, int[] nodes) {
+        return new KdTree(matrix, nodes);
+    }
+
+    public int size() {
+        return aliveCount;
+    }
+
+    public boolean isEmpty() {
+        return aliveCount == 0;
+    }
+
+    public boolean remove(int node) {
+        if (node <= 0 || node >= removed.length || removed[node]) {
+            return false;
+        }
+
+        int pos = positions[node];
+        if (points.length == 0 || points[pos] != node) {
+            return false; // nœud absent de l'index
+        }
+        int lo = 0;
+        int hi = points.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            alive[mid]--;
+            if (pos == mid) {
+                break;
+            }
+            if (pos < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        removed[node] = true;
+        aliveCount--;
+        return true;
+    }
+
+    // Réintègre un nœud supprimé ; retourne faux s'il n'était pas supprimé
+    public boolean restore(int node) {
+        if (node <= 0 || node >= removed.length || !removed[node]) {
+            return false;
+        }
+
+        int pos = positions[node];
+        int lo = 0;
+        int hi = points.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            alive[mid]++;
+            if (pos == mid) {
+                break;
+            }
+            if (pos < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+
+        removed[node] = false;
+        aliveCount++;
+        return true;
+    }
+
+    // Livraison non supprimée la plus proche du nœud donné (à égalité, l'indice le plus petit), -1 si vide
+    public int nearest(int node) {
+        bestNode = -1;
+        bestDistance = Double.POSITIVE_INFINITY;
+        search(0, points.length, coords[node * 3], coords[node * 3 + 1], coords[node * 3 + 2]);
+        return bestNode;
+    }
+
+    // Les k livraisons non supprimées les plus proches du nœud (lui-même exclu),
+    // écrites dans result par distance croissante ; retourne leur nombre
+    public int nearest(int node, int k, int[] result) {
+        if (heapNodes.length < k) {
+            heapNodes = new int[k];
+            heapDistances = new double[k];
+        }
+        heapSize = 0;
+        excludedNode = node;
+        searchK(0, points.length, k, coords[node * 3], coords[node * 3 + 1], coords[node * 3 + 2]);
+
+        // Vider le tas max de la fin vers le début donne l'ordre croissant
+        int count = heapSize;
+        for (int i = count - 1; i >= 0; i--) {
+            result[i] = heapNodes[0];
+            popHeap();
+        }
+        return count;
+    }
+
+    private void searchK(int lo, int hi, int k, double qx, double qy, double qz) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (alive[mid] == 0) {
+            return;
+        }
+
+        int point = points[mid];
+        if (!removed[point] && point != excludedNode) {
+            double dx = coords[point * 3] - qx;
+            double dy = coords[point * 3 + 1] - qy;
+            double dz = coords[point * 3 + 2] - qz;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (heapSize < k) {
+                pushHeap(point, distance);
+            } else if (distance < heapDistances[0]) {
+                popHeap();
+                pushHeap(point, distance);
+            }
+        }
+
+        int axis = axes[mid];
+        double query = axis == 0 ? qx : axis == 1 ? qy : qz;
+        double diff = query - coords[point * 3 + axis];
+
+        int nearLo = diff < 0 ? lo : mid + 1;
+        int nearHi = diff < 0 ? mid : hi;
+        int farLo = diff < 0 ? mid + 1 : lo;
+        int farHi = diff < 0 ? hi : mid;
+
+        searchK(nearLo, nearHi, k, qx, qy, qz);
+        if (heapSize < k || diff * diff < heapDistances[0]) {
+            searchK(farLo, farHi, k, qx, qy, qz);
+        }
+    }
+
+    private void pushHeap(int node, double distance) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapDistances[parent] >= distance) {
+                break;
+            }
+            heapNodes[i] = heapNodes[parent];
+            heapDistances[i] = heapDistances[parent];
+            i = parent;
+        }
+        heapNodes[i] = node;
+        heapDistances[i] = distance;
+    }
+
+    private void popHeap() {
+        int lastNode = heapNodes[--heapSize];
+        double lastDistance = heapDistances[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapDistances[child + 1] > heapDistances[child]) {
+                child++;
+            }
+            if (heapDistances[child] <= lastDistance) {
+                break;
+            }
+            heapNodes[i] = heapNodes[child];
+            heapDistances[i] = heapDistances[child];
+            i = child;
+        }
+        heapNodes[i] = lastNode;
+        heapDistances[i] = lastDistance;
+    }
+
+    private void search(int lo, int hi, double qx, double qy, double qz) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (alive[mid] == 0) {
+            return;
+        }
+
+        int point = points[mid];
+        if (!removed[point]) {
+            double dx = coords[point * 3] - qx;
+            double dy = coords[point * 3 + 1] - qy;
+            double dz = coords[point * 3 + 2] - qz;
+            double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < bestDistance || (distance == bestDistance && point < bestNode)) {
+                bestDistance = distance;
+                bestNode = point;
+            }
+        }
+
+        int axis = axes[mid];
+        double query = axis == 0 ? qx : axis == 1 ? qy : qz;
+        double diff = query - coords[point * 3 + axis];
+
+        if (diff < 0) {
+            search(lo, mid, qx, qy, qz);
+            if (diff * diff <= bestDistance) {
+                search(mid + 1, hi, qx, qy, qz);
+            }
+        } else {
+            search(mid + 1, hi, qx, qy, qz);
+            if (diff * diff <= bestDistance) {
+                search(lo, mid, qx, qy, qz);
+            }
+        }
+    }
+
+    private void build(int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+
+        int axis = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+
+        axes[mid] = (byte) axis;
+        alive[mid] = hi - lo;
+
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = coords[points[i] * 3 + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    // Quickselect : place en k l'élément de rang k selon l'axe, les plus petits à gauche
+    private void select(int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = coords[points[(left + right) >>> 1] * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coords[points[i] * 3 + axis] < pivot) i++;
+                while (coords[points[j] * 3 + axis] > pivot) j--;
+                if (i <= j) {
+                    int tmp = points[i];
+                    points[i] = points[j];
+                    points[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+// Base des recherches locales chaînées après un autre optimiseur : chaque tournée produite
+// par le délégué est améliorée sans changer son ensemble de livraisons.
+public abstract class LocalSearchOptimizer extends AbstractTourOptimizer {
+
+    public static final int DEFAULT_NEIGHBORS = 10;
+
+    protected static final double EPSILON = 1e-10;
+
+    protected final TourOptimizer delegate;
+    protected final int neighborCount;
+
+    protected LocalSearchOptimizer(TourOptimizer delegate, int neighborCount) {
+        if (neighborCount < 1) {
+            throw new IllegalArgumentException("neighborCount must be at least 1");
+        }
+        this.delegate = delegate;
+        this.neighborCount = neighborCount;
+    }
+
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        return DistanceMatrix.forSize(warehouse, deliveries);
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        // Le délégué travaille sur la même matrice ; s'y ajoutent les listes de voisins
+        long matrix = DistanceMatrix.forSizeBytes(deliveryCount);
+        return Math.max(matrix, delegate.estimateMemoryBytes(deliveryCount)) + 12L * neighborCount * (deliveryCount + 1);
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        int[] route = delegate.calculateRoute(matrix, deliveries, vehicle);
+        return improve(matrix, route, new int[matrix.size()]);
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        // Les mouvements intra-tournée ne modifient pas la charge : le découpage du délégué reste valide
+        int[][] routes = delegate.calculateRoutes(matrix, deliveries, vehicle);
+        int[] localIndex = new int[matrix.size()];
+        for (int r = 0; r < routes.length; r++) {
+            routes[r] = improve(matrix, routes[r], localIndex);
+        }
+        return routes;
+    }
+
+    // localIndex est un tableau de travail de taille matrix.size(), partagé entre les tournées
+    protected abstract int[] improve(DistanceMatrix matrix, int[] route, int[] localIndex);
+
+    static double distance(DistanceMatrix matrix, NeighborLists neighbors, int from, int to) {
+        return matrix.distance(neighbors.node(from), neighbors.node(to));
+    }
+}
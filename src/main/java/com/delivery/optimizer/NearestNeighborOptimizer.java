@@ -1,108 +1,108 @@
 package com.delivery.optimizer;
 
 import com.delivery.entity.Delivery;
-import com.delivery.entity.Warehouse;
+import com.delivery.entity.Tour;
 import com.delivery.entity.Vehicle;
-import org.springframework.stereotype.Component;
+import com.delivery.entity.Warehouse;
 
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Logger;
 
 
-public class NearestNeighborOptimizer implements TourOptimizer {
+public class NearestNeighborOptimizer extends AbstractTourOptimizer {
 
     private static final Logger logger = Logger.getLogger(NearestNeighborOptimizer.class.getName());
 
-    @Override
-    public List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
-        logger.info("Calculating tour using Nearest Neighbor algorithm for " + deliveries.size() + " deliveries");
-
-        if (deliveries.isEmpty()) {
-            return new ArrayList<>();
-        }
-
-        List<Delivery> unvisited = new ArrayList<>(deliveries);
-        List<Delivery> optimizedRoute = new ArrayList<>();
+    // Point de bascule mesuré par NearestNeighborBenchmark
+    public static final int DEFAULT_SPATIAL_INDEX_THRESHOLD = 40;
 
-        // Point de départ : entrepôt
-        double currentLat = warehouse.getLatitude();
-        double currentLon = warehouse.getLongitude();
+    private final int spatialIndexThreshold;
 
-        while (!unvisited.isEmpty()) {
-            final double finalCurrentLat = currentLat;
-            final double finalCurrentLon = currentLon;
+    public NearestNeighborOptimizer() {
+        this(DEFAULT_SPATIAL_INDEX_THRESHOLD);
+    }
 
-            // Trouver la livraison la plus proche
-            Delivery nearest = unvisited.stream()
-                    .min(Comparator.comparingDouble(d ->
-                            calculateDistance(finalCurrentLat, finalCurrentLon, d.getLatitude(), d.getLongitude())))
-                    .orElse(null);
-
-            if (nearest != null) {
-                optimizedRoute.add(nearest);
-                unvisited.remove(nearest);
-                currentLat = nearest.getLatitude();
-                currentLon = nearest.getLongitude();
-            }
-        }
+    public NearestNeighborOptimizer(int spatialIndexThreshold) {
+        super(Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        this.spatialIndexThreshold = spatialIndexThreshold;
+    }
 
-        // Assigner l'ordre aux livraisons
-        for (int i = 0; i < optimizedRoute.size(); i++) {
-            optimizedRoute.get(i).setOrder(i + 1);
-        }
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        // Coordonnées, k-d tree et marqueurs de visite : linéaire avec l'index spatial
+        return usesSpatialIndex(deliveryCount) ? 64L * (deliveryCount + 1) : DistanceMatrix.denseBytes(deliveryCount);
+    }
 
-        logger.info("Nearest Neighbor optimization completed. Route with " + optimizedRoute.size() + " deliveries");
-        return optimizedRoute;
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        // Avec l'index spatial, seules n + 1 distances sont nécessaires : inutile de remplir n²
+        return usesSpatialIndex(deliveries.size())
+                ? DistanceMatrix.onDemand(warehouse, deliveries)
+                : DistanceMatrix.of(warehouse, deliveries);
     }
 
     @Override
-    public Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries) {
-        if (deliveries.isEmpty()) {
-            return 0.0;
-        }
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        logger.info("Calculating tour using Nearest Neighbor algorithm for " + deliveries.size() + " deliveries");
 
-        List<Delivery> optimizedDeliveries = calculateOptimalTour(warehouse, deliveries, null);
-        double totalDistance = 0.0;
-
-        // Distance entre l'entrepôt et la première livraison
-        totalDistance += calculateDistance(
-                warehouse.getLatitude(), warehouse.getLongitude(),
-                optimizedDeliveries.get(0).getLatitude(), optimizedDeliveries.get(0).getLongitude()
-        );
-
-        // Distances entre les livraisons
-        for (int i = 0; i < optimizedDeliveries.size() - 1; i++) {
-            totalDistance += calculateDistance(
-                    optimizedDeliveries.get(i).getLatitude(), optimizedDeliveries.get(i).getLongitude(),
-                    optimizedDeliveries.get(i + 1).getLatitude(), optimizedDeliveries.get(i + 1).getLongitude()
-            );
-        }
+        int[] route = usesSpatialIndex(matrix.deliveryCount())
+                ? spatialIndexRoute(matrix)
+                : linearScanRoute(matrix);
 
-        // Distance entre la dernière livraison et l'entrepôt
-        totalDistance += calculateDistance(
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLatitude(),
-                optimizedDeliveries.get(optimizedDeliveries.size() - 1).getLongitude(),
-                warehouse.getLatitude(), warehouse.getLongitude()
-        );
+        logger.info("Nearest Neighbor optimization completed. Route with " + route.length + " deliveries");
+        return route;
+    }
 
-        logger.info("Total distance calculated: " + totalDistance + " km");
-        return totalDistance;
+    private boolean usesSpatialIndex(int deliveryCount) {
+        return deliveryCount >= spatialIndexThreshold;
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Rayon de la Terre en km
+    private int[] linearScanRoute(DistanceMatrix matrix) {
+        int n = matrix.deliveryCount();
+        boolean[] visited = new boolean[n + 1];
+        int[] route = new int[n];
 
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
+        // Point de départ : entrepôt
+        int current = DistanceMatrix.DEPOT;
 
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        for (int step = 0; step < n; step++) {
+            checkInterrupted(step);
+            // Trouver la livraison la plus proche
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int candidate = 1; candidate <= n; candidate++) {
+                if (!visited[candidate]) {
+                    double distance = matrix.distance(current, candidate);
+                    if (distance < nearestDistance) {
+                        nearestDistance = distance;
+                        nearest = candidate;
+                    }
+                }
+            }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+            route[step] = nearest;
+            visited[nearest] = true;
+            current = nearest;
+        }
+
+        return route;
+    }
+
+    private int[] spatialIndexRoute(DistanceMatrix matrix) {
+        KdTree tree = KdTree.of(matrix);
+        int[] route = new int[matrix.deliveryCount()];
+
+        // Point de départ : entrepôt
+        int current = DistanceMatrix.DEPOT;
+
+        for (int step = 0; step < route.length; step++) {
+            checkInterrupted(step);
+            int nearest = tree.nearest(current);
+            tree.remove(nearest);
+            route[step] = nearest;
+            current = nearest;
+        }
 
-        return R * c;
+        return route;
     }
-}
\ No newline at end of file
+}
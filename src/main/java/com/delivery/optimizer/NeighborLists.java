@@ -0,0 +1,66 @@
+package com.delivery.optimizer;
+
+// Listes de voisins d'une tournée, en indices locaux : 0 = entrepôt, 1..m = livraisons de la tournée.
+// Chaque liste est triée par distance croissante, ce qui permet d'arrêter l'exploration dès
+// qu'un voisin est plus loin que l'arête courante.
+final class NeighborLists {
+
+    private final int[] nodes;      // indice local -> nœud de la matrice
+    private final int[] neighbors;  // neighbors[local * k + slot], en indices locaux
+    private final int[] counts;
+    private final int k;
+
+    private NeighborLists(int[] nodes, int[] neighbors, int[] counts, int k) {
+        this.nodes = nodes;
+        this.neighbors = neighbors;
+        this.counts = counts;
+        this.k = k;
+    }
+
+    // localIndex est un tableau de travail de taille matrix.size(), réutilisé d'une tournée à l'autre
+    static NeighborLists of(DistanceMatrix matrix, int[] route, int k, int[] localIndex) {
+        int size = route.length + 1;
+        int[] nodes = new int[size];
+        nodes[0] = DistanceMatrix.DEPOT;
+        System.arraycopy(route, 0, nodes, 1, route.length);
+        for (int local = 0; local < size; local++) {
+            localIndex[nodes[local]] = local;
+        }
+
+        int width = Math.min(k, route.length);
+        int[] neighbors = new int[size * width];
+        int[] counts = new int[size];
+        if (width == 0) {
+            return new NeighborLists(nodes, neighbors, counts, width);
+        }
+
+        KdTree tree = KdTree.of(matrix, route);
+        int[] buffer = new int[width];
+        for (int local = 0; local < size; local++) {
+            // L'entrepôt n'est pas indexé : la requête depuis une livraison ne le retourne jamais,
+            // mais la liste de l'entrepôt couvre les arêtes qui le touchent
+            int found = tree.nearest(nodes[local], width, buffer);
+            for (int slot = 0; slot < found; slot++) {
+                neighbors[local * width + slot] = localIndex[buffer[slot]];
+            }
+            counts[local] = found;
+        }
+        return new NeighborLists(nodes, neighbors, counts, width);
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    int node(int local) {
+        return nodes[local];
+    }
+
+    int count(int local) {
+        return counts[local];
+    }
+
+    int neighbor(int local, int slot) {
+        return neighbors[local * k + slot];
+    }
+}
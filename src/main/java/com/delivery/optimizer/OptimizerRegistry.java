@@ -0,0 +1,145 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+// Registre des optimiseurs par algorithme, alimenté par les beans TourOptimizer du contexte :
+// ajouter un algorithme revient à déclarer son bean. La politique de sélection tient compte
+// du nombre de livraisons et du tas disponible pour ne jamais lancer un calcul qui ne tiendrait pas en mémoire.
+public class OptimizerRegistry {
+
+    private static final Logger logger = Logger.getLogger(OptimizerRegistry.class.getName());
+
+    // Part du tas libre qu'un seul calcul peut occuper
+    static final double HEAP_FRACTION = 0.5;
+
+    // Replis, du meilleur au plus économe, quand l'algorithme demandé ne tient pas en mémoire
+    private static final List<Tour.AlgorithmType> FALLBACK_ORDER = List.of(
+            Tour.AlgorithmType.CLARKE_WRIGHT,
+            Tour.AlgorithmType.CLUSTER_FIRST,
+            Tour.AlgorithmType.NEAREST_NEIGHBOR_LOCAL_SEARCH,
+            Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT,
+            Tour.AlgorithmType.SWEEP,
+            Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+    private final Map<Tour.AlgorithmType, TourOptimizer> optimizers;
+    private final LongSupplier availableHeap;
+    // En dessous de ce seuil, une tournée en un seul voyage demandée en mode AUTO est résolue de façon exacte
+    private int exactMaxDeliveries = Vehicle.Constraints.BIKE_MAX_DELIVERIES;
+
+    // Chaque optimiseur qui déclare un algorithme est enregistré sous celui-ci ; les autres sont ignorés
+    public OptimizerRegistry(List<TourOptimizer> optimizers) {
+        this(byAlgorithm(optimizers), OptimizerRegistry::availableHeap);
+    }
+
+    OptimizerRegistry(Map<Tour.AlgorithmType, TourOptimizer> optimizers, LongSupplier availableHeap) {
+        this.optimizers = new EnumMap<>(Tour.AlgorithmType.class);
+        this.optimizers.putAll(optimizers);
+        this.availableHeap = availableHeap;
+        logger.info("Optimizers registered: " + this.optimizers.keySet());
+    }
+
+    public static OptimizerRegistry of(Map<Tour.AlgorithmType, TourOptimizer> optimizers) {
+        return new OptimizerRegistry(optimizers, OptimizerRegistry::availableHeap);
+    }
+
+    public void setExactMaxDeliveries(int exactMaxDeliveries) {
+        this.exactMaxDeliveries = exactMaxDeliveries;
+    }
+
+    public TourOptimizer get(Tour.AlgorithmType algorithmType) {
+        TourOptimizer optimizer = optimizers.get(algorithmType);
+        if (optimizer == null) {
+            throw new IllegalArgumentException("No optimizer registered for algorithm: " + algorithmType);
+        }
+        return optimizer;
+    }
+
+    public Optional<TourOptimizer> find(Tour.AlgorithmType algorithmType) {
+        return Optional.ofNullable(optimizers.get(algorithmType));
+    }
+
+    public Set<Tour.AlgorithmType> getAlgorithms() {
+        return Collections.unmodifiableSet(optimizers.keySet());
+    }
+
+    // Algorithme effectivement utilisé pour la demande : exact pour une petite tournée en mode AUTO,
+    // repli si la mémoire manque. Sans algorithme demandé, c'est le mode AUTO qui s'applique.
+    public Tour.AlgorithmType select(Tour.AlgorithmType algorithmType, List<Delivery> deliveries, Vehicle vehicle) {
+        Tour.AlgorithmType requested = algorithmType == null ? Tour.AlgorithmType.AUTO : algorithmType;
+        if (isExactCandidate(requested, deliveries, vehicle)) {
+            logger.info("Small tour of " + deliveries.size() + " deliveries: using EXACT instead of " + requested);
+            return Tour.AlgorithmType.EXACT;
+        }
+
+        int n = deliveries.size();
+        long budget = (long) (availableHeap.getAsLong() * HEAP_FRACTION);
+        TourOptimizer optimizer = optimizers.get(requested);
+        if (optimizer == null || optimizer.estimateMemoryBytes(n) <= budget) {
+            return requested;
+        }
+
+        Tour.AlgorithmType fallback = FALLBACK_ORDER.stream()
+                .filter(type -> optimizers.containsKey(type) && optimizers.get(type).estimateMemoryBytes(n) <= budget)
+                .findFirst()
+                // Rien ne tient dans le budget : l'algorithme le plus économe est tenté
+                .orElseGet(() -> optimizers.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().estimateMemoryBytes(n)))
+                        .map(Map.Entry::getKey)
+                        .orElse(requested));
+
+        logger.warning(requested + " would need about " + optimizer.estimateMemoryBytes(n) / (1024 * 1024)
+                + " MB for " + n + " deliveries with " + budget / (1024 * 1024) + " MB available: using " + fallback);
+        return fallback;
+    }
+
+    // Une petite tournée qui tient en un seul voyage obtient la tournée optimale, calculée en quelques millisecondes ;
+    // un algorithme choisi explicitement par l'appelant est toujours respecté
+    private boolean isExactCandidate(Tour.AlgorithmType requested, List<Delivery> deliveries, Vehicle vehicle) {
+        if (requested != Tour.AlgorithmType.AUTO || !optimizers.containsKey(Tour.AlgorithmType.EXACT)
+                || deliveries.isEmpty() || deliveries.size() > exactMaxDeliveries) {
+            return false;
+        }
+
+        if (vehicle != null) {
+            double totalWeight = 0;
+            double totalVolume = 0;
+            for (Delivery delivery : deliveries) {
+                totalWeight += delivery.getWeight();
+                totalVolume += delivery.getVolume();
+            }
+            return vehicle.isValidForDelivery(totalWeight, totalVolume, deliveries.size());
+        }
+        return true;
+    }
+
+    private static Map<Tour.AlgorithmType, TourOptimizer> byAlgorithm(List<TourOptimizer> optimizers) {
+        Map<Tour.AlgorithmType, TourOptimizer> byAlgorithm = new EnumMap<>(Tour.AlgorithmType.class);
+        for (TourOptimizer optimizer : optimizers) {
+            Tour.AlgorithmType type = optimizer.getAlgorithmType();
+            if (type == null) {
+                continue;
+            }
+            if (byAlgorithm.putIfAbsent(type, optimizer) != null) {
+                throw new IllegalStateException("Several optimizers declare algorithm " + type);
+            }
+        }
+        return byAlgorithm;
+    }
+
+    private static long availableHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+}
@@ -0,0 +1,180 @@
+package com.delivery.optimizer;
+
+import java.util.logging.Logger;
+
+// Or-opt chaîné après n'importe quel optimiseur : déplace une chaîne de 1 à 3 livraisons
+// consécutives, éventuellement inversée, vers une meilleure position de la même tournée.
+public class OrOptOptimizer extends LocalSearchOptimizer {
+
+    private static final Logger logger = Logger.getLogger(OrOptOptimizer.class.getName());
+
+    public static final int MAX_SEGMENT_LENGTH = 3;
+
+    public OrOptOptimizer(TourOptimizer delegate) {
+        this(delegate, DEFAULT_NEIGHBORS);
+    }
+
+    public OrOptOptimizer(TourOptimizer delegate, int neighborCount) {
+        super(delegate, neighborCount);
+    }
+
+    @Override
+    protected int[] improve(DistanceMatrix matrix, int[] route, int[] localIndex) {
+        if (route.length < 3) {
+            return route;
+        }
+
+        double before = matrix.routeDistance(route);
+        NeighborLists neighbors = NeighborLists.of(matrix, route, neighborCount, localIndex);
+        int size = neighbors.size();
+
+        // Tournée en indices locaux ; l'entrepôt reste en position 0 car il n'est jamais déplacé
+        int[] tour = new int[size];
+        int[] pos = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+            pos[i] = i;
+        }
+
+        // Bits "don't look" : seules les livraisons proches d'un mouvement sont réexaminées
+        boolean[] active = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0;
+        int queued = 0;
+        for (int i = 1; i < size; i++) {
+            queue[queued++] = i;
+            active[i] = true;
+        }
+
+        int[] moved = new int[6];      // p, n, c, e, premier et dernier nœud de la chaîne
+        int[] segment = new int[MAX_SEGMENT_LENGTH];
+        int moves = 0;
+        while (queued > 0) {
+            checkInterrupted(head);
+            int start = queue[head];
+            head = (head + 1) % size;
+            queued--;
+            active[start] = false;
+
+            if (tryMove(start, matrix, neighbors, tour, pos, moved, segment)) {
+                moves++;
+                for (int node : moved) {
+                    if (node != DistanceMatrix.DEPOT && !active[node]) {
+                        active[node] = true;
+                        queue[(head + queued) % size] = node;
+                        queued++;
+                    }
+                }
+            }
+        }
+
+        int[] improved = new int[route.length];
+        for (int i = 1; i < size; i++) {
+            improved[i - 1] = neighbors.node(tour[i]);
+        }
+
+        logger.fine("Or-opt: " + moves + " move(s), " + before + " km -> " + matrix.routeDistance(improved) + " km");
+        return improved;
+    }
+
+    // Évalue les chaînes commençant à start et applique le premier mouvement améliorant
+    private static boolean tryMove(int start, DistanceMatrix matrix, NeighborLists neighbors,
+                                   int[] tour, int[] pos, int[] moved, int[] segment) {
+        int size = tour.length;
+        int i = pos[start];
+
+        for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+            int j = i + length - 1;
+            if (j >= size) {
+                break; // la chaîne ne traverse pas l'entrepôt
+            }
+
+            int first = tour[i];
+            int last = tour[j];
+            int p = tour[i - 1];
+            int n = tour[(j + 1) % size];
+            if (p == n) {
+                break; // la chaîne couvre toute la tournée
+            }
+
+            // Gain du retrait : (p, first) et (last, n) remplacées par (p, n)
+            double removeGain = distance(matrix, neighbors, p, first)
+                    + distance(matrix, neighbors, last, n)
+                    - distance(matrix, neighbors, p, n);
+            if (removeGain <= EPSILON) {
+                continue;
+            }
+
+            // La chaîne est réinsérée à côté d'un voisin proche de l'une de ses extrémités
+            for (int side = 0; side < 2; side++) {
+                int end = side == 0 ? first : last;
+                for (int slot = 0; slot < neighbors.count(end); slot++) {
+                    int x = neighbors.neighbor(end, slot);
+                    if (distance(matrix, neighbors, end, x) >= removeGain) {
+                        break;
+                    }
+                    int px = pos[x];
+                    if (px >= i && px <= j) {
+                        continue;
+                    }
+
+                    // Arêtes (x, succ x) puis (pred x, x)
+                    for (int edge = 0; edge < 2; edge++) {
+                        int pc = edge == 0 ? px : (px - 1 + size) % size;
+                        int pe = (pc + 1) % size;
+                        if ((pc >= i - 1 && pc <= j) || (pe >= i && pe <= j)) {
+                            continue; // arête adjacente à la chaîne
+                        }
+                        int c = tour[pc];
+                        int e = tour[pe];
+                        double ce = distance(matrix, neighbors, c, e);
+                        double forward = distance(matrix, neighbors, c, first)
+                                + distance(matrix, neighbors, last, e) - ce;
+                        double reversed = distance(matrix, neighbors, c, last)
+                                + distance(matrix, neighbors, first, e) - ce;
+                        boolean reverse = reversed < forward;
+                        if (removeGain - Math.min(forward, reversed) > EPSILON) {
+                            move(tour, pos, segment, i, j, pc, reverse);
+                            moved[0] = p;
+                            moved[1] = n;
+                            moved[2] = c;
+                            moved[3] = e;
+                            moved[4] = first;
+                            moved[5] = last;
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Déplace la chaîne [i..j] entre les positions pc et pc + 1 en décalant les nœuds intermédiaires
+    static void move(int[] tour, int[] pos, int[] segment, int i, int j, int pc, boolean reverse) {
+        int length = j - i + 1;
+        for (int s = 0; s < length; s++) {
+            segment[s] = tour[reverse ? j - s : i + s];
+        }
+
+        int from;
+        int to;
+        int target;
+        if (pc < i) {
+            System.arraycopy(tour, pc + 1, tour, pc + 1 + length, i - pc - 1);
+            target = pc + 1;
+            from = pc + 1;
+            to = j;
+        } else {
+            System.arraycopy(tour, j + 1, tour, i, pc - j);
+            target = pc - length + 1;
+            from = i;
+            to = pc;
+        }
+
+        System.arraycopy(segment, 0, tour, target, length);
+        for (int k = from; k <= to; k++) {
+            pos[tour[k]] = k;
+        }
+    }
+}
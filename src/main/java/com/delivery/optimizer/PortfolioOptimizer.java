@@ -0,0 +1,322 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Course entre plusieurs optimiseurs sur une même matrice de distances : chacun calcule en parallèle,
+// les retardataires sont abandonnés à l'échéance et la tournée la plus courte l'emporte.
+// Les victoires sont comptées par taille de tournée ; un algorithme nettement dominant sur une taille
+// est ensuite utilisé directement, la course n'étant relancée que de temps en temps.
+public class PortfolioOptimizer extends AbstractTourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(PortfolioOptimizer.class.getName());
+
+    // Budget utilisé quand l'appelant ne fixe pas d'échéance
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    // Apprentissage : nombre de courses minimal par tranche de taille et part de victoires requise
+    static final int MIN_RACES = 20;
+    static final double CONFIDENCE = 0.8;
+    // Une requête sur EXPLORATION_INTERVAL relance la course même quand un algorithme domine
+    static final int EXPLORATION_INTERVAL = 10;
+
+    // Les optimiseurs visent 90 % du budget, la marge couvre la construction du résultat
+    private static final double SOLVER_BUDGET_RATIO = 0.9;
+
+    private final Map<Tour.AlgorithmType, TourOptimizer> candidates;
+    private final long timeBudgetMillis;
+    private final ThreadPoolExecutor executor;
+    // Un permis par thread du pool : tant qu'un candidat abandonné tourne encore, son permis n'est pas rendu
+    private final Semaphore slots;
+
+    // Tranche de taille (puissance de 2 inférieure) -> victoires par algorithme
+    private final Map<Integer, EnumMap<Tour.AlgorithmType, Integer>> wins = new TreeMap<>();
+    private final Map<Integer, Integer> requests = new TreeMap<>();
+
+    public PortfolioOptimizer(Map<Tour.AlgorithmType, TourOptimizer> candidates) {
+        this(candidates, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    // L'ordre des candidats compte : le premier, calculé par le thread appelant, garantit un résultat
+    // et l'emporte en cas d'égalité ; il doit donc être le plus rapide
+    public PortfolioOptimizer(Map<Tour.AlgorithmType, TourOptimizer> candidates, long timeBudgetMillis) {
+        super(Tour.AlgorithmType.AUTO);
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one candidate optimizer is required");
+        }
+        this.candidates = new LinkedHashMap<>(candidates);
+        this.timeBudgetMillis = timeBudgetMillis;
+        int threads = Math.max(1, candidates.size() - 1);
+        this.slots = new Semaphore(threads);
+        // Le permis est rendu quand le thread a fini la tâche, y compris une tâche annulée avant d'avoir démarré
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY), portfolioThreads(), new ThreadPoolExecutor.AbortPolicy()) {
+            @Override
+            protected void afterExecute(Runnable task, Throwable error) {
+                slots.release();
+            }
+        };
+    }
+
+    @Override
+    public TripPlan calculateTrips(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        if (deliveries.isEmpty()) {
+            return new TripPlan(new ArrayList<>());
+        }
+
+        DistanceMatrix matrix = createMatrix(warehouse, deliveries);
+        Outcome outcome = run(matrix, deliveries, vehicle, deadline, true);
+        List<Trip> trips = new ArrayList<>();
+        for (int[] route : outcome.routes()) {
+            trips.add(Trip.of(route, matrix, deliveries));
+        }
+        return new TripPlan(trips, outcome.winner());
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        return run(matrix, deliveries, vehicle, null, false).routes()[0];
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        return calculateRoutes(matrix, deliveries, vehicle, null);
+    }
+
+    @Override
+    protected int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        return run(matrix, deliveries, vehicle, deadline, true).routes();
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        // Les candidats calculent en même temps
+        long total = 0L;
+        for (TourOptimizer candidate : candidates.values()) {
+            long bytes = candidate.estimateMemoryBytes(deliveryCount);
+            if (bytes == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            total += bytes;
+        }
+        return total;
+    }
+
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        return DistanceMatrix.forSize(warehouse, deliveries);
+    }
+
+    private Outcome run(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline, boolean split) {
+        int n = deliveries.size();
+        if (deadline == null) {
+            deadline = Instant.now().plusMillis(timeBudgetMillis);
+        }
+
+        // Algorithme appris pour cette taille : calculé seul, la course ne sert que s'il échoue
+        Tour.AlgorithmType learned = learnedDefault(n);
+        if (learned != null) {
+            try {
+                int[][] routes = solve(candidates.get(learned), matrix, deliveries, vehicle, deadline, split);
+                if (fits(routes, deliveries, vehicle, split)) {
+                    logger.fine("Portfolio: " + learned + " learned as default for " + n + " deliveries, race skipped");
+                    return new Outcome(learned, routes);
+                }
+            } catch (RuntimeException e) {
+                logger.warning("Portfolio: learned default " + learned + " failed: " + e.getMessage());
+            }
+        }
+        return race(matrix, deliveries, vehicle, deadline, split);
+    }
+
+    private Outcome race(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline, boolean split) {
+        long remaining = Math.max(0, Duration.between(Instant.now(), deadline).toNanos());
+        long deadlineNanos = System.nanoTime() + remaining;
+        Instant solverDeadline = Instant.now().plusNanos((long) (remaining * SOLVER_BUDGET_RATIO));
+
+        List<Tour.AlgorithmType> types = new ArrayList<>(candidates.keySet());
+        Map<Tour.AlgorithmType, Future<int[][]>> futures = new LinkedHashMap<>();
+        for (Tour.AlgorithmType type : types.subList(1, types.size())) {
+            // Pool occupé (retardataires d'une course précédente, courses simultanées) : le candidat ne
+            // court pas plutôt que d'attendre en file, le premier candidat garantit toujours un résultat
+            if (!slots.tryAcquire()) {
+                logger.warning("Portfolio pool is busy: " + type + " skipped");
+                continue;
+            }
+            TourOptimizer optimizer = candidates.get(type);
+            try {
+                futures.put(type, executor.submit(() -> solve(optimizer, matrix, deliveries, vehicle, solverDeadline, split)));
+            } catch (RejectedExecutionException e) {
+                slots.release();
+                logger.warning("Portfolio queue is full: " + type + " skipped");
+            }
+        }
+
+        // Le premier candidat est calculé par le thread appelant : la course a toujours au moins un résultat
+        Tour.AlgorithmType winner = null;
+        int[][] best = null;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        Tour.AlgorithmType first = types.get(0);
+        try {
+            int[][] routes = solve(candidates.get(first), matrix, deliveries, vehicle, solverDeadline, split);
+            if (fits(routes, deliveries, vehicle, split)) {
+                winner = first;
+                best = routes;
+                bestDistance = distance(matrix, routes);
+            }
+        } catch (RuntimeException e) {
+            logger.warning("Portfolio: " + first + " failed: " + e.getMessage());
+        }
+
+        // À l'échéance, un retardataire est interrompu : les optimiseurs testent l'interruption dans leurs
+        // boucles et rendent leur thread et leur permis au prochain point de contrôle
+        StringBuilder summary = new StringBuilder(first + "=" + (winner != null ? bestDistance : "failed"));
+        for (Map.Entry<Tour.AlgorithmType, Future<int[][]>> entry : futures.entrySet()) {
+            Future<int[][]> future = entry.getValue();
+            try {
+                int[][] routes = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                double candidate = distance(matrix, routes);
+                summary.append(", ").append(entry.getKey()).append('=').append(candidate);
+                if (candidate < bestDistance && fits(routes, deliveries, vehicle, split)) {
+                    winner = entry.getKey();
+                    best = routes;
+                    bestDistance = candidate;
+                }
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                summary.append(", ").append(entry.getKey()).append("=timeout");
+            } catch (ExecutionException e) {
+                summary.append(", ").append(entry.getKey()).append("=failed");
+                logger.warning("Portfolio: " + entry.getKey() + " failed: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                futures.values().forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Portfolio optimization interrupted");
+            }
+        }
+
+        if (winner == null) {
+            throw new RuntimeException("No optimizer produced a valid route for " + deliveries.size() + " deliveries");
+        }
+
+        recordWin(deliveries.size(), winner);
+        logger.info("Portfolio race on " + deliveries.size() + " deliveries won by " + winner
+                + " (" + bestDistance + " km) [" + summary + "]");
+        return new Outcome(winner, best);
+    }
+
+    private static int[][] solve(TourOptimizer optimizer, DistanceMatrix matrix, List<Delivery> deliveries,
+                                 Vehicle vehicle, Instant deadline, boolean split) {
+        if (!split) {
+            return new int[][]{optimizer.calculateRoute(matrix, deliveries, vehicle)};
+        }
+        return calculateRoutes(optimizer, matrix, deliveries, vehicle, deadline);
+    }
+
+    // Un candidat qui ne découpe pas selon la capacité ne peut pas gagner une course multi-tournées
+    private static boolean fits(int[][] routes, List<Delivery> deliveries, Vehicle vehicle, boolean split) {
+        if (!split || vehicle == null) {
+            return true;
+        }
+        for (int[] route : routes) {
+            double weight = 0.0;
+            double volume = 0.0;
+            for (int node : route) {
+                Delivery delivery = deliveries.get(node - 1);
+                weight += delivery.getWeight();
+                volume += delivery.getVolume();
+            }
+            if (!vehicle.isValidForDelivery(weight, volume, route.length)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double distance(DistanceMatrix matrix, int[][] routes) {
+        double total = 0.0;
+        for (int[] route : routes) {
+            total += matrix.routeDistance(route);
+        }
+        return total;
+    }
+
+    // Un algorithme dominant pour cette taille, ou null s'il faut lancer la course
+    synchronized Tour.AlgorithmType learnedDefault(int deliveryCount) {
+        int bucket = bucket(deliveryCount);
+        int count = requests.merge(bucket, 1, Integer::sum);
+        EnumMap<Tour.AlgorithmType, Integer> bucketWins = wins.get(bucket);
+        if (bucketWins == null || count % EXPLORATION_INTERVAL == 0) {
+            return null;
+        }
+
+        int total = 0;
+        Tour.AlgorithmType leader = null;
+        for (Map.Entry<Tour.AlgorithmType, Integer> entry : bucketWins.entrySet()) {
+            total += entry.getValue();
+            if (leader == null || entry.getValue() > bucketWins.get(leader)) {
+                leader = entry.getKey();
+            }
+        }
+        return total >= MIN_RACES && bucketWins.get(leader) >= CONFIDENCE * total ? leader : null;
+    }
+
+    synchronized void recordWin(int deliveryCount, Tour.AlgorithmType winner) {
+        wins.computeIfAbsent(bucket(deliveryCount), b -> new EnumMap<>(Tour.AlgorithmType.class))
+                .merge(winner, 1, Integer::sum);
+    }
+
+    // Victoires par tranche de taille, par exemple "64-127" -> {CLARKE_WRIGHT=12, ...}
+    public synchronized Map<String, Map<Tour.AlgorithmType, Integer>> getWinsBySize() {
+        Map<String, Map<Tour.AlgorithmType, Integer>> result = new LinkedHashMap<>();
+        for (Map.Entry<Integer, EnumMap<Tour.AlgorithmType, Integer>> entry : wins.entrySet()) {
+            int low = 1 << entry.getKey();
+            result.put(low + "-" + (2 * low - 1), new EnumMap<>(entry.getValue()));
+        }
+        return result;
+    }
+
+    private static int bucket(int deliveryCount) {
+        return 31 - Integer.numberOfLeadingZeros(Math.max(1, deliveryCount));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static ThreadFactory portfolioThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "portfolio-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Outcome(Tour.AlgorithmType winner, int[][] routes) {
+    }
+}
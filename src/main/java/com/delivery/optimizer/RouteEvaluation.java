@@ -0,0 +1,98 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Évaluation d'un ordre de passage fixé, sans réoptimisation : distance, charge et détail par trajet, en O(n)
+public class RouteEvaluation {
+
+    private final List<Leg> legs;
+    private final double totalDistance;
+    private final double totalWeight;
+    private final double totalVolume;
+
+    private RouteEvaluation(List<Leg> legs, double totalDistance, double totalWeight, double totalVolume) {
+        this.legs = legs;
+        this.totalDistance = totalDistance;
+        this.totalWeight = totalWeight;
+        this.totalVolume = totalVolume;
+    }
+
+    // Tournée fermée : entrepôt -> livraisons dans l'ordre de la liste -> entrepôt
+    public static RouteEvaluation of(Warehouse warehouse, List<Delivery> ordered) {
+        double totalWeight = 0.0;
+        double totalVolume = 0.0;
+        for (Delivery delivery : ordered) {
+            totalWeight += delivery.getWeight();
+            totalVolume += delivery.getVolume();
+        }
+
+        List<Leg> legs = new ArrayList<>(ordered.size() + 1);
+        if (ordered.isEmpty()) {
+            return new RouteEvaluation(legs, 0.0, 0.0, 0.0);
+        }
+
+        // La charge à bord diminue à chaque livraison effectuée
+        double weightOnBoard = totalWeight;
+        double volumeOnBoard = totalVolume;
+        double cumulative = 0.0;
+        Long fromId = null;
+        double lat = warehouse.getLatitude();
+        double lon = warehouse.getLongitude();
+        for (Delivery delivery : ordered) {
+            double distance = DistanceMatrix.haversine(lat, lon, delivery.getLatitude(), delivery.getLongitude());
+            cumulative += distance;
+            legs.add(new Leg(fromId, delivery.getId(), distance, cumulative, weightOnBoard, volumeOnBoard));
+
+            weightOnBoard -= delivery.getWeight();
+            volumeOnBoard -= delivery.getVolume();
+            fromId = delivery.getId();
+            lat = delivery.getLatitude();
+            lon = delivery.getLongitude();
+        }
+
+        // Retour à l'entrepôt, à vide
+        double back = DistanceMatrix.haversine(lat, lon, warehouse.getLatitude(), warehouse.getLongitude());
+        cumulative += back;
+        legs.add(new Leg(fromId, null, back, cumulative, 0.0, 0.0));
+
+        return new RouteEvaluation(legs, cumulative, totalWeight, totalVolume);
+    }
+
+    public List<Leg> getLegs() { return legs; }
+    public double getTotalDistance() { return totalDistance; }
+    public double getTotalWeight() { return totalWeight; }
+    public double getTotalVolume() { return totalVolume; }
+    public int getDeliveryCount() { return Math.max(legs.size() - 1, 0); }
+
+    // Un trajet entre deux arrêts ; un identifiant null désigne l'entrepôt
+    public static class Leg {
+
+        private final Long fromDeliveryId;
+        private final Long toDeliveryId;
+        private final double distance;
+        private final double cumulativeDistance;
+        private final double weightOnBoard;
+        private final double volumeOnBoard;
+
+        public Leg(Long fromDeliveryId, Long toDeliveryId, double distance, double cumulativeDistance,
+                   double weightOnBoard, double volumeOnBoard) {
+            this.fromDeliveryId = fromDeliveryId;
+            this.toDeliveryId = toDeliveryId;
+            this.distance = distance;
+            this.cumulativeDistance = cumulativeDistance;
+            this.weightOnBoard = weightOnBoard;
+            this.volumeOnBoard = volumeOnBoard;
+        }
+
+        public Long getFromDeliveryId() { return fromDeliveryId; }
+        public Long getToDeliveryId() { return toDeliveryId; }
+        public double getDistance() { return distance; }
+        public double getCumulativeDistance() { return cumulativeDistance; }
+        public double getWeightOnBoard() { return weightOnBoard; }
+        public double getVolumeOnBoard() { return volumeOnBoard; }
+    }
+}
@@ -0,0 +1,200 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+// Recuit simulé anytime : part des tournées du délégué, explore des mouvements 2-opt et de
+// déplacement d'une livraison jusqu'à l'échéance et retourne la meilleure tournée rencontrée.
+public class SimulatedAnnealingOptimizer extends LocalSearchOptimizer {
+
+    private static final Logger logger = Logger.getLogger(SimulatedAnnealingOptimizer.class.getName());
+
+    // Budget utilisé quand l'appelant ne fixe pas d'échéance
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 1000;
+
+    // L'horloge et la température ne sont relues que toutes les 256 itérations
+    private static final int CHECK_MASK = 255;
+
+    // Température initiale relative à la longueur moyenne d'une arête, et température finale relative à l'initiale
+    private static final double INITIAL_TEMPERATURE_FACTOR = 1.0;
+    private static final double FINAL_TEMPERATURE_RATIO = 1e-3;
+
+    private static final long SEED = 42L;
+
+    private final long timeBudgetMillis;
+
+    public SimulatedAnnealingOptimizer(TourOptimizer delegate) {
+        this(delegate, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    public SimulatedAnnealingOptimizer(TourOptimizer delegate, long timeBudgetMillis) {
+        super(delegate, DEFAULT_NEIGHBORS);
+        setAlgorithmType(Tour.AlgorithmType.SIMULATED_ANNEALING);
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        return calculateRoutes(matrix, deliveries, vehicle, null);
+    }
+
+    @Override
+    protected int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        if (deadline == null) {
+            deadline = Instant.now().plusMillis(timeBudgetMillis);
+        }
+        long deadlineNanos = System.nanoTime() + Duration.between(Instant.now(), deadline).toNanos();
+
+        int[][] routes = delegate.calculateRoutes(matrix, deliveries, vehicle);
+
+        // Le temps restant est réparti entre les tournées au prorata de leur nombre de livraisons
+        int remaining = 0;
+        for (int[] route : routes) {
+            remaining += route.length;
+        }
+        int[] localIndex = new int[matrix.size()];
+        for (int r = 0; r < routes.length; r++) {
+            long now = System.nanoTime();
+            long share = remaining == 0 ? 0 : (deadlineNanos - now) / remaining * routes[r].length;
+            routes[r] = anneal(matrix, routes[r], localIndex, now + share);
+            remaining -= routes[r].length;
+        }
+        return routes;
+    }
+
+    @Override
+    protected int[] improve(DistanceMatrix matrix, int[] route, int[] localIndex) {
+        return anneal(matrix, route, localIndex, System.nanoTime() + timeBudgetMillis * 1_000_000L);
+    }
+
+    private int[] anneal(DistanceMatrix matrix, int[] route, int[] localIndex, long deadlineNanos) {
+        long start = System.nanoTime();
+        if (route.length < 3 || start >= deadlineNanos) {
+            return route;
+        }
+
+        NeighborLists neighbors = NeighborLists.of(matrix, route, neighborCount, localIndex);
+        int size = neighbors.size();
+
+        // Tournée en indices locaux ; l'entrepôt reste en position 0
+        int[] tour = new int[size];
+        int[] pos = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+            pos[i] = i;
+        }
+        int[] best = tour.clone();
+        int[] segment = new int[1];
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        double current = matrix.routeDistance(route);
+        double before = current;
+        double bestCost = current;
+
+        double initialTemperature = INITIAL_TEMPERATURE_FACTOR * current / size;
+        double temperature = initialTemperature;
+        double span = deadlineNanos - start;
+
+        // Aucune allocation dans la boucle : uniquement des tableaux préparés ci-dessus
+        long iterations = 0;
+        while (true) {
+            if ((iterations++ & CHECK_MASK) == 0) {
+                long now = System.nanoTime();
+                // Échéance atteinte ou course abandonnée : la meilleure tournée trouvée est retournée
+                if (now >= deadlineNanos || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE_RATIO, (now - start) / span);
+            }
+
+            int u = 1 + random.nextInt(size - 1);
+            int v = neighbors.neighbor(u, random.nextInt(neighbors.count(u)));
+
+            double delta;
+            int lo = 0;
+            int hi = 0;
+            int pc = 0;
+            boolean twoOpt = random.nextBoolean();
+            if (twoOpt) {
+                // Rendre u et v adjacents en inversant le segment qui les sépare
+                lo = Math.min(pos[u], pos[v]);
+                hi = Math.max(pos[u], pos[v]);
+                if (hi - lo < 2) {
+                    continue;
+                }
+                int a = tour[lo];
+                int b = tour[lo + 1];
+                int c = tour[hi];
+                int d = tour[(hi + 1) % size];
+                delta = distance(matrix, neighbors, a, c) + distance(matrix, neighbors, b, d)
+                        - distance(matrix, neighbors, a, b) - distance(matrix, neighbors, c, d);
+            } else {
+                // Déplacer u à côté de v, sur l'arête (v, succ v) ou (pred v, v)
+                int pu = pos[u];
+                pc = random.nextBoolean() ? pos[v] : pos[v] - 1;
+                int pe = (pc + 1) % size;
+                if (pc == pu || pc == pu - 1 || pe == pu) {
+                    continue;
+                }
+                int p = tour[pu - 1];
+                int n = tour[(pu + 1) % size];
+                int c = tour[pc];
+                int e = tour[pe];
+                delta = distance(matrix, neighbors, c, u) + distance(matrix, neighbors, u, e)
+                        - distance(matrix, neighbors, c, e)
+                        - distance(matrix, neighbors, p, u) - distance(matrix, neighbors, u, n)
+                        + distance(matrix, neighbors, p, n);
+                lo = pu;
+            }
+
+            if (delta > 0 && random.nextDouble() >= Math.exp(-delta / temperature)) {
+                continue;
+            }
+
+            // Avant de quitter un meilleur état par un mouvement dégradant, le sauvegarder
+            if (delta > 0 && current < bestCost - EPSILON) {
+                System.arraycopy(tour, 0, best, 0, size);
+                bestCost = current;
+            }
+
+            if (twoOpt) {
+                reverse(tour, pos, lo + 1, hi);
+            } else {
+                OrOptOptimizer.move(tour, pos, segment, lo, lo, pc, false);
+            }
+            current += delta;
+        }
+
+        if (current < bestCost) {
+            best = tour;
+        }
+
+        int[] improved = new int[route.length];
+        for (int i = 1; i < size; i++) {
+            improved[i - 1] = neighbors.node(best[i]);
+        }
+
+        logger.fine("Simulated annealing: " + iterations + " iteration(s), " + before + " km -> "
+                + matrix.routeDistance(improved) + " km");
+        return improved;
+    }
+
+    private static void reverse(int[] tour, int[] pos, int from, int to) {
+        while (from < to) {
+            int tmp = tour[from];
+            tour[from] = tour[to];
+            tour[to] = tmp;
+            pos[tour[from]] = from;
+            pos[tour[to]] = to;
+            from++;
+            to--;
+        }
+    }
+}
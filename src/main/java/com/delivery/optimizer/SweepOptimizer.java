@@ -0,0 +1,83 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+// Algorithme de balayage : les livraisons sont prises par angle croissant autour de l'entrepôt et
+// chargées dans la tournée courante tant que le poids, le volume et le nombre de livraisons du véhicule
+// le permettent. Chaque tournée est ensuite ordonnée par plus proche voisin : O(n log n) pour le tri,
+// O(n · k) pour l'ordonnancement avec k la taille d'une tournée, bornée par ORDER_CHUNK.
+public class SweepOptimizer extends AbstractTourOptimizer {
+
+    private static final Logger logger = Logger.getLogger(SweepOptimizer.class.getName());
+
+    // Sans limite du véhicule, le plus proche voisin est appliqué par tranches consécutives du balayage
+    static final int ORDER_CHUNK = 512;
+
+    public SweepOptimizer() {
+        super(Tour.AlgorithmType.SWEEP);
+    }
+
+    @Override
+    public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        // Une seule séquence : les tournées du balayage mises bout à bout
+        int[] route = new int[matrix.deliveryCount()];
+        int length = 0;
+        for (int[] trip : calculateRoutes(matrix, deliveries, vehicle)) {
+            System.arraycopy(trip, 0, route, length, trip.length);
+            length += trip.length;
+        }
+        return route;
+    }
+
+    @Override
+    public int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        int[][] trips = SweepPartition.partition(matrix, deliveries, vehicle, Integer.MAX_VALUE);
+        for (int[] trip : trips) {
+            order(matrix, trip);
+        }
+
+        logger.info("Sweep optimization completed. " + trips.length + " route(s) for " + deliveries.size() + " deliveries");
+        return trips;
+    }
+
+    @Override
+    protected DistanceMatrix createMatrix(Warehouse warehouse, List<Delivery> deliveries) {
+        // Seuls les angles et O(n · ORDER_CHUNK) distances sont lus : pas de matrice n²
+        return DistanceMatrix.onDemand(warehouse, deliveries);
+    }
+
+    @Override
+    public long estimateMemoryBytes(int deliveryCount) {
+        return 64L * (deliveryCount + 1);
+    }
+
+    // Plus proche voisin sur place, tranche par tranche, en partant de l'entrepôt
+    private static void order(DistanceMatrix matrix, int[] trip) {
+        int current = DistanceMatrix.DEPOT;
+        for (int from = 0; from < trip.length; from += ORDER_CHUNK) {
+            int to = Math.min(from + ORDER_CHUNK, trip.length);
+            for (int i = from; i < to; i++) {
+                checkInterrupted(i);
+                int best = i;
+                double bestDistance = matrix.distance(current, trip[i]);
+                for (int j = i + 1; j < to; j++) {
+                    double d = matrix.distance(current, trip[j]);
+                    if (d < bestDistance) {
+                        bestDistance = d;
+                        best = j;
+                    }
+                }
+                int next = trip[best];
+                trip[best] = trip[i];
+                trip[i] = next;
+                current = next;
+            }
+        }
+    }
+}
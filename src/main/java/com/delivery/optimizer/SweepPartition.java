@@ -0,0 +1,90 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Découpage par balayage polaire autour de l'entrepôt, en O(n log n) : les livraisons sont parcourues
+// par angle croissant et une nouvelle grappe commence dès que la taille maximale ou la capacité serait dépassée.
+final class SweepPartition {
+
+    private static final double ANGLE_SCALE = Integer.MAX_VALUE / (2 * Math.PI);
+
+    private SweepPartition() {
+    }
+
+    // Indices de la matrice (1..n) dans l'ordre du balayage, en partant du plus grand écart angulaire
+    static int[] sweepOrder(DistanceMatrix matrix) {
+        int n = matrix.deliveryCount();
+        double[] angles = new double[n + 1];
+        for (int node = 1; node <= n; node++) {
+            angles[node] = matrix.angle(node);
+        }
+
+        // Tri des livraisons par angle croissant, sur des clés primitives : angle quantifié sur 31 bits
+        // (pas d'environ 3e-9 rad) dans les bits de poids fort, indice du nœud dans les 32 bits de poids faible
+        long[] keys = new long[n];
+        for (int node = 1; node <= n; node++) {
+            long quantized = (long) ((angles[node] + Math.PI) * ANGLE_SCALE);
+            keys[node - 1] = Math.min(quantized, Integer.MAX_VALUE) << 32 | node;
+        }
+        Arrays.sort(keys);
+        int[] nodes = new int[n];
+        for (int k = 0; k < n; k++) {
+            nodes[k] = (int) keys[k];
+        }
+
+        // Le balayage démarre après le plus grand secteur vide : les grappes ne chevauchent pas ce trou
+        int start = 0;
+        double largestGap = n == 0 ? 0.0 : angles[nodes[0]] + 2 * Math.PI - angles[nodes[n - 1]];
+        for (int k = 1; k < n; k++) {
+            double gap = angles[nodes[k]] - angles[nodes[k - 1]];
+            if (gap > largestGap) {
+                largestGap = gap;
+                start = k;
+            }
+        }
+
+        int[] order = new int[n];
+        for (int k = 0; k < n; k++) {
+            order[k] = nodes[(start + k) % n];
+        }
+        return order;
+    }
+
+    // Grappes consécutives du balayage ; vehicle null : seule la taille maximale limite une grappe
+    static int[][] partition(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle, int maxSize) {
+        int[] order = sweepOrder(matrix);
+        int limit = maxSize;
+        if (vehicle != null && vehicle.getMaxDeliveries() != null) {
+            limit = Math.min(limit, vehicle.getMaxDeliveries());
+        }
+        limit = Math.max(1, limit);
+
+        List<int[]> clusters = new ArrayList<>();
+        int from = 0;
+        double weight = 0.0;
+        double volume = 0.0;
+        for (int k = 0; k < order.length; k++) {
+            Delivery delivery = deliveries.get(order[k] - 1);
+            boolean full = k - from >= limit
+                    || (vehicle != null && (weight + delivery.getWeight() > vehicle.getMaxWeight()
+                    || volume + delivery.getVolume() > vehicle.getMaxVolume()));
+            if (full && k > from) {
+                clusters.add(Arrays.copyOfRange(order, from, k));
+                from = k;
+                weight = 0.0;
+                volume = 0.0;
+            }
+            weight += delivery.getWeight();
+            volume += delivery.getVolume();
+        }
+        if (from < order.length) {
+            clusters.add(Arrays.copyOfRange(order, from, order.length));
+        }
+        return clusters.toArray(new int[0][]);
+    }
+}
@@ -1,12 +1,45 @@
 package com.delivery.optimizer;
 
 import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
 import com.delivery.entity.Warehouse;
 import com.delivery.entity.Vehicle;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface TourOptimizer {
     List<Delivery> calculateOptimalTour(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle);
+
+    // Distance de la tournée fermée dans l'ordre donné, sans réoptimisation
     Double calculateTotalDistance(Warehouse warehouse, List<Delivery> deliveries);
-}
\ No newline at end of file
+
+    // Toutes les tournées nécessaires quand les contraintes du véhicule imposent plusieurs voyages
+    default TripPlan calculateTrips(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle) {
+        List<Delivery> route = calculateOptimalTour(warehouse, deliveries, vehicle);
+        return new TripPlan(List.of(Trip.of(warehouse, route)));
+    }
+
+    // Échéance d'horloge (null : aucune) ; seuls les optimiseurs anytime s'en servent, les autres l'ignorent
+    default TripPlan calculateTrips(Warehouse warehouse, List<Delivery> deliveries, Vehicle vehicle, Instant deadline) {
+        return calculateTrips(warehouse, deliveries, vehicle);
+    }
+
+    // Retourne les indices de la matrice (1..n) dans l'ordre de passage, sans l'entrepôt
+    int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle);
+
+    // Par défaut une seule tournée ; un optimiseur qui découpe selon la capacité retourne toutes les tournées
+    default int[][] calculateRoutes(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+        return new int[][]{calculateRoute(matrix, deliveries, vehicle)};
+    }
+
+    // Algorithme sous lequel le registre expose cet optimiseur ; null pour un délégué interne non exposé
+    default Tour.AlgorithmType getAlgorithmType() {
+        return null;
+    }
+
+    // Estimation grossière de la mémoire de travail pour n livraisons, en octets ; par défaut la matrice dense
+    default long estimateMemoryBytes(int deliveryCount) {
+        return DistanceMatrix.denseBytes(deliveryCount);
+    }
+}
@@ -0,0 +1,47 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+// Une tournée fermée (départ et retour à l'entrepôt) avec sa distance et sa charge
+public class Trip {
+
+    private final List<Delivery> deliveries;
+    private final double distance;
+    private final double weight;
+    private final double volume;
+
+    public Trip(List<Delivery> deliveries, double distance, double weight, double volume) {
+        this.deliveries = deliveries;
+        this.distance = distance;
+        this.weight = weight;
+        this.volume = volume;
+    }
+
+    static Trip of(int[] route, DistanceMatrix matrix, List<Delivery> deliveries) {
+        List<Delivery> ordered = AbstractTourOptimizer.toDeliveries(route, deliveries);
+        return new Trip(ordered, matrix.routeDistance(route), totalWeight(ordered), totalVolume(ordered));
+    }
+
+    // Pour une séquence déjà ordonnée, sans matrice
+    public static Trip of(Warehouse warehouse, List<Delivery> ordered) {
+        RouteEvaluation evaluation = RouteEvaluation.of(warehouse, ordered);
+        return new Trip(ordered, evaluation.getTotalDistance(), evaluation.getTotalWeight(), evaluation.getTotalVolume());
+    }
+
+    private static double totalWeight(List<Delivery> deliveries) {
+        return deliveries.stream().mapToDouble(Delivery::getWeight).sum();
+    }
+
+    private static double totalVolume(List<Delivery> deliveries) {
+        return deliveries.stream().mapToDouble(Delivery::getVolume).sum();
+    }
+
+    public List<Delivery> getDeliveries() { return deliveries; }
+    public double getDistance() { return distance; }
+    public double getWeight() { return weight; }
+    public double getVolume() { return volume; }
+    public int getDeliveryCount() { return deliveries.size(); }
+}
@@ -0,0 +1,42 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Tour;
+
+import java.util.List;
+
+// Résultat multi-tournées : toutes les tournées nécessaires pour servir les livraisons
+public class TripPlan {
+
+    private final List<Trip> trips;
+    // Algorithme retenu quand l'optimiseur choisit lui-même (mode AUTO), sinon null
+    private final Tour.AlgorithmType algorithm;
+
+    public TripPlan(List<Trip> trips) {
+        this(trips, null);
+    }
+
+    public TripPlan(List<Trip> trips, Tour.AlgorithmType algorithm) {
+        this.trips = trips;
+        this.algorithm = algorithm;
+    }
+
+    public List<Trip> getTrips() {
+        return trips;
+    }
+
+    public Tour.AlgorithmType getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getTripCount() {
+        return trips.size();
+    }
+
+    public double getTotalDistance() {
+        return trips.stream().mapToDouble(Trip::getDistance).sum();
+    }
+
+    public int getDeliveryCount() {
+        return trips.stream().mapToInt(Trip::getDeliveryCount).sum();
+    }
+}
@@ -0,0 +1,158 @@
+package com.delivery.optimizer;
+
+import java.util.logging.Logger;
+
+// Amélioration 2-opt chaînée après n'importe quel optimiseur : supprime les croisements
+// de chaque tournée produite par l'optimiseur délégué.
+public class TwoOptOptimizer extends LocalSearchOptimizer {
+
+    private static final Logger logger = Logger.getLogger(TwoOptOptimizer.class.getName());
+
+    public TwoOptOptimizer(TourOptimizer delegate) {
+        this(delegate, DEFAULT_NEIGHBORS);
+    }
+
+    public TwoOptOptimizer(TourOptimizer delegate, int neighborCount) {
+        super(delegate, neighborCount);
+    }
+
+    @Override
+    protected int[] improve(DistanceMatrix matrix, int[] route, int[] localIndex) {
+        if (route.length < 3) {
+            return route;
+        }
+
+        double before = matrix.routeDistance(route);
+        NeighborLists neighbors = NeighborLists.of(matrix, route, neighborCount, localIndex);
+        int size = neighbors.size();
+
+        // Tournée cyclique en indices locaux, l'entrepôt (0) en première position
+        int[] tour = new int[size];
+        int[] pos = new int[size];
+        for (int i = 0; i < size; i++) {
+            tour[i] = i;
+            pos[i] = i;
+        }
+
+        // Bits "don't look" : seuls les nœuds dont une arête a changé sont réexaminés
+        boolean[] active = new boolean[size];
+        int[] queue = new int[size];
+        int head = 0;
+        int queued = size;
+        for (int i = 0; i < size; i++) {
+            queue[i] = i;
+            active[i] = true;
+        }
+
+        int[] moved = new int[4]; // extrémités (a, b, c, d) du dernier mouvement
+        int moves = 0;
+        while (queued > 0) {
+            checkInterrupted(head);
+            int a = queue[head];
+            head = (head + 1) % size;
+            queued--;
+            active[a] = false;
+
+            if (tryMoves(a, matrix, neighbors, tour, pos, moved)) {
+                moves++;
+                // Réactiver a et les extrémités des nouvelles arêtes
+                for (int node : moved) {
+                    if (!active[node]) {
+                        active[node] = true;
+                        queue[(head + queued) % size] = node;
+                        queued++;
+                    }
+                }
+            }
+        }
+
+        // Remettre l'entrepôt en tête et revenir aux nœuds de la matrice
+        int depotPos = pos[0];
+        int[] improved = new int[route.length];
+        for (int i = 1; i < size; i++) {
+            improved[i - 1] = neighbors.node(tour[(depotPos + i) % size]);
+        }
+
+        logger.fine("2-opt: " + moves + " move(s), " + before + " km -> " + matrix.routeDistance(improved) + " km");
+        return improved;
+    }
+
+    private static boolean tryMoves(int a, DistanceMatrix matrix, NeighborLists neighbors,
+                                    int[] tour, int[] pos, int[] moved) {
+        int size = tour.length;
+
+        // Sens direct : arêtes (a, succ a) et (c, succ c) remplacées par (a, c) et (succ a, succ c)
+        int b = tour[(pos[a] + 1) % size];
+        double ab = distance(matrix, neighbors, a, b);
+        for (int slot = 0; slot < neighbors.count(a); slot++) {
+            int c = neighbors.neighbor(a, slot);
+            double ac = distance(matrix, neighbors, a, c);
+            if (ac >= ab) {
+                break;
+            }
+            int d = tour[(pos[c] + 1) % size];
+            if (c == b || d == a) {
+                continue;
+            }
+            double delta = ac + distance(matrix, neighbors, b, d) - ab - distance(matrix, neighbors, c, d);
+            if (delta < -EPSILON) {
+                reverse(tour, pos, pos[b], pos[c]);
+                setMoved(moved, a, b, c, d);
+                return true;
+            }
+        }
+
+        // Sens inverse : arêtes (pred a, a) et (pred c, c) remplacées par (c, a) et (pred c, pred a)
+        b = tour[(pos[a] - 1 + size) % size];
+        ab = distance(matrix, neighbors, a, b);
+        for (int slot = 0; slot < neighbors.count(a); slot++) {
+            int c = neighbors.neighbor(a, slot);
+            double ac = distance(matrix, neighbors, a, c);
+            if (ac >= ab) {
+                break;
+            }
+            int d = tour[(pos[c] - 1 + size) % size];
+            if (c == b || d == a) {
+                continue;
+            }
+            double delta = ac + distance(matrix, neighbors, b, d) - ab - distance(matrix, neighbors, c, d);
+            if (delta < -EPSILON) {
+                reverse(tour, pos, pos[a], pos[d]);
+                setMoved(moved, a, b, c, d);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void setMoved(int[] moved, int a, int b, int c, int d) {
+        moved[0] = a;
+        moved[1] = b;
+        moved[2] = c;
+        moved[3] = d;
+    }
+
+    // Inverse le segment cyclique [from..to] ; si le segment dépasse la moitié de la tournée,
+    // on inverse le complément, ce qui donne la même tournée parcourue dans l'autre sens
+    static void reverse(int[] tour, int[] pos, int from, int to) {
+        int size = tour.length;
+        int length = ((to - from + size) % size) + 1;
+        if (length * 2 > size) {
+            int newFrom = (to + 1) % size;
+            to = (from - 1 + size) % size;
+            from = newFrom;
+            length = size - length;
+        }
+
+        for (int s = 0; s < length / 2; s++) {
+            int i = (from + s) % size;
+            int j = (to - s + size) % size;
+            int tmp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = tmp;
+            pos[tour[i]] = i;
+            pos[tour[j]] = j;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.delivery.repository;
 
 import com.delivery.entity.Delivery;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -21,4 +22,19 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
 
     @Query("SELECT d FROM Delivery d WHERE d.tour IS NULL AND d.status = 'PENDING'")
     List<Delivery> findPendingUnassignedDeliveries();
+
+    // Décale d'un rang les arrêts suivants d'une tournée, en une seule requête
+    @Modifying
+    @Query("UPDATE Delivery d SET d.order = d.order + 1 WHERE d.tour.id = :tourId AND d.order >= :fromOrder")
+    int shiftOrders(@Param("tourId") Long tourId, @Param("fromOrder") Integer fromOrder);
+
+    // Referme le trou laissé par un arrêt retiré, en une seule requête
+    @Modifying
+    @Query("UPDATE Delivery d SET d.order = d.order - 1 WHERE d.tour.id = :tourId AND d.order > :afterOrder")
+    int compactOrders(@Param("tourId") Long tourId, @Param("afterOrder") Integer afterOrder);
+
+    // Retire toutes les livraisons d'une tournée, en une seule requête
+    @Modifying
+    @Query("UPDATE Delivery d SET d.tour = NULL, d.order = NULL WHERE d.tour.id = :tourId")
+    int unassignTour(@Param("tourId") Long tourId);
 }
\ No newline at end of file
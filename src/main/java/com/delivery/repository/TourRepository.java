@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface TourRepository extends JpaRepository<Tour, Long> {
 
@@ -25,4 +26,21 @@ public interface TourRepository extends JpaRepository<Tour, Long> {
 
     @Query("SELECT t FROM Tour t WHERE t.date = :date AND t.vehicle.id = :vehicleId")
     List<Tour> findByDateAndVehicleId(@Param("date") LocalDate date, @Param("vehicleId") Long vehicleId);
-}
\ No newline at end of file
+
+    // Une seule requête pour les tournées d'une date, avec véhicule, entrepôt et livraisons (warehouseId optionnel)
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.vehicle JOIN FETCH t.warehouse LEFT JOIN FETCH t.deliveries " +
+            "WHERE t.date = :date AND (:warehouseId IS NULL OR t.warehouse.id = :warehouseId)")
+    List<Tour> findByDateWithDeliveries(@Param("date") LocalDate date, @Param("warehouseId") Long warehouseId);
+
+    // Variantes avec véhicule, entrepôt et livraisons chargés dans la même requête : pas de N+1 au mapping
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.vehicle JOIN FETCH t.warehouse LEFT JOIN FETCH t.deliveries")
+    List<Tour> findAllWithDeliveries();
+
+    @Query("SELECT DISTINCT t FROM Tour t JOIN FETCH t.vehicle JOIN FETCH t.warehouse LEFT JOIN FETCH t.deliveries " +
+            "WHERE t.vehicle.id = :vehicleId")
+    List<Tour> findByVehicleIdWithDeliveries(@Param("vehicleId") Long vehicleId);
+
+    @Query("SELECT t FROM Tour t JOIN FETCH t.vehicle JOIN FETCH t.warehouse LEFT JOIN FETCH t.deliveries " +
+            "WHERE t.id = :id")
+    Optional<Tour> findByIdWithDeliveries(@Param("id") Long id);
+}
@@ -0,0 +1,175 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+// Cache borné des ordres de passage calculés pour les endpoints en lecture seule.
+// Éviction LRU au-delà de maxEntries et expiration après ttl ; la clé inclut une empreinte
+// des livraisons, de l'entrepôt et du véhicule, une tournée modifiée ne peut donc pas être servie périmée.
+public class OptimizationCache {
+
+    private static final Logger logger = Logger.getLogger(OptimizationCache.class.getName());
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final long DEFAULT_TTL_SECONDS = 600;
+
+    private static final long NULL_SENTINEL = 0x9e3779b97f4a7c15L;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public OptimizationCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS);
+    }
+
+    public OptimizationCache(int maxEntries, long ttlSeconds) {
+        this(maxEntries, TimeUnit.SECONDS.toNanos(ttlSeconds), System::nanoTime);
+    }
+
+    OptimizationCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        // Ordre d'accès : l'entrée la moins récemment utilisée est évincée en premier
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > OptimizationCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Identifiants des livraisons de chaque trajet dans l'ordre optimisé, ou null si absent ou expiré
+    public synchronized long[][] get(Long tourId, Tour.AlgorithmType algorithm, long fingerprint) {
+        Key key = new Key(tourId, algorithm, fingerprint);
+        Entry entry = entries.get(key);
+        if (entry != null && clock.getAsLong() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            expirations++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.deliveryIds;
+    }
+
+    public synchronized void put(Long tourId, Tour.AlgorithmType algorithm, long fingerprint, long[][] deliveryIds) {
+        entries.put(new Key(tourId, algorithm, fingerprint), new Entry(deliveryIds, clock.getAsLong()));
+    }
+
+    // Appelé à chaque modification de la tournée : toutes ses entrées, tous algorithmes confondus
+    public synchronized void invalidate(Long tourId) {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> key.tourId().equals(tourId));
+        if (entries.size() < before) {
+            logger.fine("Optimization cache: " + (before - entries.size()) + " entry(ies) invalidated for tour " + tourId);
+        }
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size(), maxEntries);
+    }
+
+    // Empreinte indépendante de l'ordre des livraisons : identifiants, coordonnées, poids et volumes
+    public static long fingerprint(Warehouse warehouse, Vehicle vehicle, List<Delivery> deliveries) {
+        long hash = mix(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            long h = mix(bits(delivery.getId()));
+            h = mix(h ^ bits(delivery.getLatitude()));
+            h = mix(h ^ bits(delivery.getLongitude()));
+            h = mix(h ^ bits(delivery.getWeight()));
+            h = mix(h ^ bits(delivery.getVolume()));
+            hash += h; // somme commutative
+        }
+
+        hash = mix(hash ^ bits(warehouse.getLatitude()));
+        hash = mix(hash ^ bits(warehouse.getLongitude()));
+        if (vehicle != null) {
+            hash = mix(hash ^ bits(vehicle.getMaxWeight()));
+            hash = mix(hash ^ bits(vehicle.getMaxVolume()));
+            hash = mix(hash ^ bits(vehicle.getMaxDeliveries()));
+            hash = mix(hash ^ bits(vehicle.getRange()));
+        }
+        return hash;
+    }
+
+    // Un champ absent (rayon d'action non renseigné, etc.) est haché comme une valeur sentinelle
+    private static long bits(Double value) {
+        return value == null ? NULL_SENTINEL : Double.doubleToLongBits(value);
+    }
+
+    private static long bits(Number value) {
+        return value == null ? NULL_SENTINEL : value.longValue();
+    }
+
+    // Finaliseur de SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Key(Long tourId, Tour.AlgorithmType algorithm, long fingerprint) {
+    }
+
+    private record Entry(long[][] deliveryIds, long createdAt) {
+    }
+
+    public static class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+        private final int maxEntries;
+
+        public Stats(long hits, long misses, long evictions, long expirations, int size, int maxEntries) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+            this.maxEntries = maxEntries;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public int getSize() { return size; }
+        public int getMaxEntries() { return maxEntries; }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+
+import java.util.List;
+
+// Données d'une tournée chargées et validées avant le calcul : le solveur peut tourner hors transaction
+public class OptimizationInput {
+
+    private final Long tourId;
+    private final Tour.AlgorithmType algorithm;
+    private final Warehouse warehouse;
+    private final Vehicle vehicle;
+    private final List<Delivery> deliveries;
+
+    public OptimizationInput(Long tourId, Tour.AlgorithmType algorithm, Warehouse warehouse, Vehicle vehicle,
+                             List<Delivery> deliveries) {
+        this.tourId = tourId;
+        this.algorithm = algorithm;
+        this.warehouse = warehouse;
+        this.vehicle = vehicle;
+        this.deliveries = deliveries;
+    }
+
+    public Long getTourId() { return tourId; }
+    public Tour.AlgorithmType getAlgorithm() { return algorithm; }
+    public Warehouse getWarehouse() { return warehouse; }
+    public Vehicle getVehicle() { return vehicle; }
+    public List<Delivery> getDeliveries() { return deliveries; }
+}
@@ -0,0 +1,64 @@
+package com.delivery.service;
+
+import com.delivery.entity.Tour;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
+
+// Suivi d'une optimisation asynchrone : état, horodatages et, une fois terminée, la tournée enregistrée
+public class OptimizationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final Long tourId;
+    private final Tour.AlgorithmType algorithm;
+    private final Instant submittedAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Tour result;
+
+    public OptimizationJob(String id, Long tourId, Tour.AlgorithmType algorithm) {
+        this.id = id;
+        this.tourId = tourId;
+        this.algorithm = algorithm;
+        this.submittedAt = Instant.now();
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void markSucceeded(Tour tour) {
+        result = tour;
+        finishedAt = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void markFailed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public String getId() { return id; }
+    public Long getTourId() { return tourId; }
+    public Tour.AlgorithmType getAlgorithm() { return algorithm; }
+    public Status getStatus() { return status; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+
+    @JsonIgnore
+    public Tour getResult() { return result; }
+}
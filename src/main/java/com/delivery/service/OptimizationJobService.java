@@ -0,0 +1,233 @@
+package com.delivery.service;
+
+import com.delivery.dto.BulkOptimizationDTO;
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.TripPlan;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+// Optimisations asynchrones sur un pool dédié et borné : la requête HTTP rend la main
+// immédiatement avec un identifiant de travail, le calcul ne tient ni thread web ni connexion.
+public class OptimizationJobService {
+
+    private static final Logger logger = Logger.getLogger(OptimizationJobService.class.getName());
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    // Nombre de tournées écrites par transaction lors d'une optimisation groupée
+    public static final int BATCH_SIZE = 50;
+
+    // Les travaux terminés restent consultables pendant cette durée
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final TourService tourService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, OptimizationJob> jobs = new ConcurrentHashMap<>();
+
+    public OptimizationJobService(TourService tourService) {
+        this(tourService, Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public OptimizationJobService(TourService tourService, int threads, int queueCapacity) {
+        this.tourService = tourService;
+        // Calcul CPU : autant de threads que de cœurs disponibles, file bornée pour refuser la surcharge
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), optimizerThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public OptimizationJob submit(Long tourId, Tour.AlgorithmType algorithm, Long timeBudgetMs) {
+        purgeFinishedJobs();
+
+        OptimizationJob job = new OptimizationJob(UUID.randomUUID().toString(), tourId, algorithm);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, timeBudgetMs));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw new RuntimeException("Optimization queue is full, retry later");
+        }
+
+        logger.info("Optimization job " + job.getId() + " queued for tour " + tourId + " with algorithm: " + algorithm);
+        return job;
+    }
+
+    public Optional<OptimizationJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(OptimizationJob job, Long timeBudgetMs) {
+        job.markRunning();
+        try {
+            // Le budget court à partir du démarrage effectif, pas de la mise en file
+            Instant deadline = timeBudgetMs != null ? Instant.now().plusMillis(timeBudgetMs) : null;
+
+            OptimizationInput input = tourService.prepareOptimization(job.getTourId(), job.getAlgorithm());
+            TripPlan plan = tourService.solve(input, deadline);
+            Tour tour = tourService.applyOptimization(input, plan);
+
+            job.markSucceeded(tour);
+            logger.info("Optimization job " + job.getId() + " completed for tour " + job.getTourId());
+        } catch (RuntimeException e) {
+            job.markFailed(e.getMessage());
+            logger.warning("Optimization job " + job.getId() + " failed: " + e.getMessage());
+        }
+    }
+
+    // Optimisation de toutes les tournées d'une date : un seul chargement, calculs en parallèle
+    // sur le pool partagé, puis écriture par lots de BATCH_SIZE tournées par transaction
+    public BulkOptimizationDTO optimizeToursForDate(LocalDate date, Long warehouseId, Tour.AlgorithmType algorithm) {
+        long start = System.nanoTime();
+        List<Tour> tours = tourService.getToursForOptimization(date, warehouseId);
+        int count = tours.size();
+
+        OptimizationInput[] inputs = new OptimizationInput[count];
+        TripPlan[] plans = new TripPlan[count];
+        BulkOptimizationDTO.TourResult[] results = new BulkOptimizationDTO.TourResult[count];
+        for (int i = 0; i < count; i++) {
+            Tour tour = tours.get(i);
+            results[i] = new BulkOptimizationDTO.TourResult(tour.getId(), tour.getDeliveries().size(), 0, null, 0L, false, null);
+            try {
+                inputs[i] = tourService.toOptimizationInput(tour, algorithm);
+            } catch (RuntimeException e) {
+                results[i].setError(e.getMessage());
+            }
+        }
+
+        solveAll(inputs, plans, results);
+        writeBack(inputs, plans, results);
+
+        BulkOptimizationDTO summary = new BulkOptimizationDTO();
+        summary.setDate(date);
+        summary.setWarehouseId(warehouseId);
+        summary.setAlgorithm(algorithm);
+        summary.setTourCount(count);
+        for (BulkOptimizationDTO.TourResult result : results) {
+            if (result.isSuccess()) {
+                summary.setSucceeded(summary.getSucceeded() + 1);
+                summary.setTotalDistance(summary.getTotalDistance() + result.getDistance());
+            } else {
+                summary.setFailed(summary.getFailed() + 1);
+            }
+            summary.getTours().add(result);
+        }
+        summary.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        logger.info("Bulk optimization for " + date + ": " + summary.getSucceeded() + "/" + count
+                + " tour(s) optimized in " + summary.getElapsedMillis() + " ms");
+        return summary;
+    }
+
+    // Au plus un calcul en vol par thread du pool, pour laisser de la place dans la file aux travaux unitaires
+    private void solveAll(OptimizationInput[] inputs, TripPlan[] plans, BulkOptimizationDTO.TourResult[] results) {
+        ExecutorCompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+        int parallelism = executor.getMaximumPoolSize();
+        int inFlight = 0;
+        int next = 0;
+        try {
+            while (next < inputs.length || inFlight > 0) {
+                while (inFlight < parallelism && next < inputs.length) {
+                    int index = next++;
+                    if (inputs[index] == null) {
+                        continue;
+                    }
+                    try {
+                        completion.submit(() -> solveOne(index, inputs, plans, results));
+                        inFlight++;
+                    } catch (RejectedExecutionException e) {
+                        // File saturée : le thread appelant calcule lui-même
+                        solveOne(index, inputs, plans, results);
+                    }
+                }
+                if (inFlight > 0) {
+                    completion.take().get();
+                    inFlight--;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk optimization interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Bulk optimization failed: " + e.getCause().getMessage());
+        }
+    }
+
+    private int solveOne(int index, OptimizationInput[] inputs, TripPlan[] plans, BulkOptimizationDTO.TourResult[] results) {
+        long start = System.nanoTime();
+        try {
+            plans[index] = tourService.solve(inputs[index], null);
+        } catch (RuntimeException e) {
+            results[index].setError(e.getMessage());
+        }
+        results[index].setSolveMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return index;
+    }
+
+    // Un lot en échec est annulé en entier : ses tournées sont marquées en échec, les autres lots sont conservés
+    private void writeBack(OptimizationInput[] inputs, TripPlan[] plans, BulkOptimizationDTO.TourResult[] results) {
+        List<Integer> solved = new ArrayList<>();
+        for (int i = 0; i < plans.length; i++) {
+            if (plans[i] != null) {
+                solved.add(i);
+            }
+        }
+
+        for (int from = 0; from < solved.size(); from += BATCH_SIZE) {
+            List<Integer> batch = solved.subList(from, Math.min(from + BATCH_SIZE, solved.size()));
+            List<OptimizationInput> batchInputs = new ArrayList<>(batch.size());
+            List<TripPlan> batchPlans = new ArrayList<>(batch.size());
+            for (int index : batch) {
+                batchInputs.add(inputs[index]);
+                batchPlans.add(plans[index]);
+            }
+
+            try {
+                tourService.applyOptimizations(batchInputs, batchPlans);
+                for (int index : batch) {
+                    results[index].setSuccess(true);
+                    results[index].setTripCount(plans[index].getTripCount());
+                    results[index].setDistance(plans[index].getTotalDistance());
+                }
+            } catch (RuntimeException e) {
+                logger.warning("Bulk optimization batch of " + batch.size() + " tour(s) failed: " + e.getMessage());
+                for (int index : batch) {
+                    results[index].setError(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        Instant limit = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory optimizerThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "optimizer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
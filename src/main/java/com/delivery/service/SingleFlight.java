@@ -0,0 +1,62 @@
+package com.delivery.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Regroupement des appels identiques simultanés : le premier appelant d'une clé calcule,
+// les suivants attendent ce calcul en cours et partagent son résultat ou son exception.
+// Rien n'est conservé une fois le calcul terminé ; la mise en cache reste à la charge de l'appelant.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public V execute(K key, Supplier<V> work) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, call);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+
+        // La clé est retirée avant de publier le résultat : un appel arrivant ensuite recalcule
+        V result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            calls.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        calls.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    // Nombre d'appels servis par le calcul d'un autre appelant
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public int getInFlightCount() {
+        return calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package com.delivery.service;
 
 import com.delivery.entity.*;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.OptimizerRegistry;
+import com.delivery.optimizer.PortfolioOptimizer;
+import com.delivery.optimizer.RouteEvaluation;
 import com.delivery.optimizer.TourOptimizer;
+import com.delivery.optimizer.Trip;
+import com.delivery.optimizer.TripPlan;
 import com.delivery.repository.TourRepository;
 import com.delivery.repository.DeliveryRepository;
 import com.delivery.repository.VehicleRepository;
 import com.delivery.repository.WarehouseRepository;
+import org.hibernate.Hibernate;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
 
 public class TourService {
@@ -21,23 +34,28 @@ public class TourService {
     private final DeliveryRepository deliveryRepository;
     private final VehicleRepository vehicleRepository;
     private final WarehouseRepository warehouseRepository;
-    private final TourOptimizer nearestNeighborOptimizer;
-    private final TourOptimizer clarkeWrightOptimizer;
+    private final OptimizerRegistry optimizerRegistry;
+    private final OptimizationCache optimizationCache;
+
+
+    // Requêtes identiques simultanées : un seul calcul en cours, partagé par tous les appelants
+    private final SingleFlight<RouteKey, long[][]> routeCalls = new SingleFlight<>();
+    private final SingleFlight<OptimizeKey, Long> optimizeCalls = new SingleFlight<>();
 
     public TourService(TourRepository tourRepository, DeliveryRepository deliveryRepository,
                        VehicleRepository vehicleRepository, WarehouseRepository warehouseRepository,
-                       TourOptimizer nearestNeighborOptimizer, TourOptimizer clarkeWrightOptimizer) {
+                       OptimizerRegistry optimizerRegistry, OptimizationCache optimizationCache) {
         this.tourRepository = tourRepository;
         this.deliveryRepository = deliveryRepository;
         this.vehicleRepository = vehicleRepository;
         this.warehouseRepository = warehouseRepository;
-        this.nearestNeighborOptimizer = nearestNeighborOptimizer;
-        this.clarkeWrightOptimizer = clarkeWrightOptimizer;
+        this.optimizerRegistry = optimizerRegistry;
+        this.optimizationCache = optimizationCache;
     }
 
     public List<Tour> getAllTours() {
         logger.info("Fetching all tours");
-        return tourRepository.findAll();
+        return tourRepository.findAllWithDeliveries();
     }
 
     public Optional<Tour> getTourById(Long id) {
@@ -74,17 +92,52 @@ public class TourService {
         return tourRepository.save(tour);
     }
 
-    @Transactional
     public Tour optimizeTour(Long tourId, Tour.AlgorithmType algorithmType) {
-        logger.info("Optimizing tour " + tourId + " with algorithm: " + algorithmType);
+        return optimizeTour(tourId, algorithmType, null);
+    }
 
-        Optional<Tour> tourOpt = tourRepository.findById(tourId);
+    // deadline : échéance d'horloge que les optimiseurs anytime ne dépassent pas (null : budget par défaut).
+    // Volontairement sans transaction : le chargement et l'écriture passent par le proxy et ont chacun
+    // la leur, le calcul ne retient donc aucune connexion
+    public Tour optimizeTour(Long tourId, Tour.AlgorithmType algorithmType, Instant deadline) {
+        logger.info("Optimizing tour " + tourId + " with algorithm: " + algorithmType
+                + (deadline != null ? " until " + deadline : ""));
+
+        // Un appel concurrent pour la même tournée, le même algorithme et la même échéance attend le calcul
+        // du premier ; seul l'identifiant est partagé, une fois l'écriture validée
+        optimizeCalls.execute(new OptimizeKey(tourId, algorithmType, deadline), () -> {
+            TourService proxy = self();
+            OptimizationInput input = proxy.prepareOptimization(tourId, algorithmType);
+            TripPlan plan = solve(input, deadline);
+            return proxy.applyOptimization(input, plan).getId();
+        });
+
+        // Chaque appelant relit la tournée validée, avec véhicule, entrepôt et livraisons
+        return tourRepository.findByIdWithDeliveries(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+    }
+
+    // Référence transactionnelle vers ce service, fournie par le conteneur (lookup-method) ;
+    // hors conteneur, les étapes s'exécutent directement
+    protected TourService self() {
+        return this;
+    }
+
+    // Étape 1 : chargement et validation, dans une transaction courte en lecture seule
+    @Transactional(readOnly = true)
+    public OptimizationInput prepareOptimization(Long tourId, Tour.AlgorithmType algorithmType) {
+        Optional<Tour> tourOpt = tourRepository.findByIdWithDeliveries(tourId);
         if (tourOpt.isEmpty()) {
             throw new RuntimeException("Tour not found with id: " + tourId);
         }
 
-        Tour tour = tourOpt.get();
-        List<Delivery> deliveries = tour.getDeliveries();
+        return toOptimizationInput(tourOpt.get(), algorithmType);
+    }
+
+    // Validation d'une tournée déjà chargée ; l'appelant garantit que ses associations sont accessibles
+    public OptimizationInput toOptimizationInput(Tour tour, Tour.AlgorithmType algorithmType) {
+        Long tourId = tour.getId();
+        List<Delivery> deliveries = new ArrayList<>(tour.getDeliveries());
         Warehouse warehouse = tour.getWarehouse();
         Vehicle vehicle = tour.getVehicle();
 
@@ -92,40 +145,141 @@ public class TourService {
             throw new RuntimeException("No deliveries found for tour id: " + tourId);
         }
 
-        double totalWeight = deliveries.stream().mapToDouble(Delivery::getWeight).sum();
-        double totalVolume = deliveries.stream().mapToDouble(Delivery::getVolume).sum();
-        int deliveryCount = deliveries.size();
-
-        if (!vehicle.isValidForDelivery(totalWeight, totalVolume, deliveryCount)) {
-            String errorMsg = String.format(
-                    "Le véhicule %s ne peut pas transporter %d livraisons (Poids: %.1fkg/%.1fkg, Volume: %.2fm³/%.2fm³)",
-                    vehicle.getLicensePlate(), deliveryCount, totalWeight, vehicle.getMaxWeight(),
-                    totalVolume, vehicle.getMaxVolume());
-            logger.severe(errorMsg);
-            throw new RuntimeException(errorMsg);
+        // Chaque livraison doit tenir seule dans le véhicule ; au-delà, l'optimiseur peut découper en plusieurs tournées
+        for (Delivery delivery : deliveries) {
+            if (!vehicle.isValidForDelivery(delivery.getWeight(), delivery.getVolume(), 1)) {
+                throw capacityExceeded(vehicle, 1, delivery.getWeight(), delivery.getVolume());
+            }
         }
 
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
+        // L'entrepôt doit rester lisible une fois la transaction terminée
+        Hibernate.initialize(warehouse);
 
-        List<Delivery> optimizedDeliveries = optimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
-        Double totalDistance = optimizer.calculateTotalDistance(warehouse, optimizedDeliveries);
+        return new OptimizationInput(tourId, optimizerRegistry.select(algorithmType, deliveries, vehicle),
+                warehouse, vehicle, deliveries);
+    }
 
-        // Mettre à jour les livraisons avec le nouvel ordre
-        for (Delivery delivery : optimizedDeliveries) {
-            delivery.setTour(tour);
-            deliveryRepository.save(delivery);
+    // Tournées d'une date avec véhicule, entrepôt et livraisons, chargées en une seule requête
+    public List<Tour> getToursForOptimization(LocalDate date, Long warehouseId) {
+        logger.info("Fetching tours to optimize for date: " + date
+                + (warehouseId != null ? " and warehouse " + warehouseId : ""));
+        return tourRepository.findByDateWithDeliveries(date, warehouseId);
+    }
+
+    // Étape 2 : calcul pur, sans transaction ni connexion à la base
+    public TripPlan solve(OptimizationInput input, Instant deadline) {
+        Vehicle vehicle = input.getVehicle();
+        TourOptimizer optimizer = optimizerRegistry.get(input.getAlgorithm());
+
+        TripPlan plan = optimizer.calculateTrips(input.getWarehouse(), input.getDeliveries(), vehicle, deadline);
+
+        for (Trip trip : plan.getTrips()) {
+            if (!vehicle.isValidForDelivery(trip.getWeight(), trip.getVolume(), trip.getDeliveryCount())) {
+                throw capacityExceeded(vehicle, trip.getDeliveryCount(), trip.getWeight(), trip.getVolume());
+            }
+        }
+        return plan;
+    }
+
+    // Étape 3 : écriture du résultat dans une transaction courte
+    @Transactional
+    public Tour applyOptimization(OptimizationInput input, TripPlan plan) {
+        Long tourId = input.getTourId();
+        // En mode AUTO, c'est l'algorithme gagnant de la course qui est enregistré
+        Tour.AlgorithmType algorithmType = plan.getAlgorithm() != null ? plan.getAlgorithm() : input.getAlgorithm();
+        Tour tour = tourRepository.findById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+
+        // Les livraisons ont pu changer pendant la résolution, hors transaction : le plan ne s'applique
+        // qu'à l'ensemble exact qui a été résolu
+        if (!deliveryIds(tour.getDeliveries()).equals(deliveryIds(input.getDeliveries()))) {
+            throw new RuntimeException("Deliveries of tour " + tourId + " changed during optimization: retry");
         }
 
-        tour.setDeliveries(optimizedDeliveries);
+        // La première tournée reste sur la tournée existante
+        Trip firstTrip = plan.getTrips().get(0);
+        List<Delivery> optimizedDeliveries = firstTrip.getDeliveries();
+
+        // Mettre à jour les livraisons avec le nouvel ordre
+        tour.setDeliveries(assignRoute(tour, optimizedDeliveries));
         tour.setAlgorithmUsed(algorithmType);
-        tour.setTotalDistance(totalDistance);
+        tour.setTotalDistance(firstTrip.getDistance());
+
+        // Les tournées suivantes deviennent des tournées sœurs : même date, véhicule et entrepôt
+        for (Trip trip : plan.getTrips().subList(1, plan.getTripCount())) {
+            Tour sibling = new Tour();
+            sibling.setDate(tour.getDate());
+            sibling.setVehicle(tour.getVehicle());
+            sibling.setWarehouse(tour.getWarehouse());
+            sibling.setAlgorithmUsed(algorithmType);
+            sibling.setTotalDistance(trip.getDistance());
+            Tour savedSibling = tourRepository.save(sibling);
+            savedSibling.setDeliveries(assignRoute(savedSibling, trip.getDeliveries()));
+            logger.info("Tour " + tourId + " split: trip of " + trip.getDeliveryCount()
+                    + " deliveries saved as tour " + savedSibling.getId());
+        }
 
-        logger.info("Optimization completed for tour " + tourId + " - Distance: " + totalDistance + "km");
+        optimizationCache.invalidate(tourId);
+        logger.info("Optimization completed for tour " + tourId + " - " + plan.getTripCount() + " trip(s), Distance: "
+                + plan.getTotalDistance() + "km");
 
         return tourRepository.save(tour);
     }
 
+    // Écriture de l'ordre d'une tournée : les livraisons sont chargées en une requête puis modifiées
+    // en place ; au flush, les UPDATE partent par lots JDBC (hibernate.jdbc.batch_size) au lieu d'un
+    // merge et d'un aller-retour par livraison
+    private List<Delivery> assignRoute(Tour tour, List<Delivery> route) {
+        List<Long> ids = new ArrayList<>(route.size());
+        for (Delivery delivery : route) {
+            ids.add(delivery.getId());
+        }
+        Map<Long, Delivery> managed = new HashMap<>();
+        for (Delivery delivery : deliveryRepository.findAllById(ids)) {
+            managed.put(delivery.getId(), delivery);
+        }
+
+        List<Delivery> assigned = new ArrayList<>(route.size());
+        for (Delivery delivery : route) {
+            Delivery target = managed.get(delivery.getId());
+            if (target == null) {
+                // Livraison supprimée entre-temps : l'instantané détaché ne doit pas être réécrit
+                throw new RuntimeException("Delivery not found with id: " + delivery.getId());
+            }
+            target.setTour(tour);
+            target.setOrder(delivery.getOrder());
+            assigned.add(target);
+        }
+        return assigned;
+    }
+
+    private static Set<Long> deliveryIds(List<Delivery> deliveries) {
+        Set<Long> ids = new HashSet<>(deliveries.size() * 2);
+        for (Delivery delivery : deliveries) {
+            ids.add(delivery.getId());
+        }
+        return ids;
+    }
+
+    // Écriture groupée : plusieurs tournées résolues dans une seule transaction
+    @Transactional
+    public List<Tour> applyOptimizations(List<OptimizationInput> inputs, List<TripPlan> plans) {
+        List<Tour> tours = new ArrayList<>(inputs.size());
+        for (int i = 0; i < inputs.size(); i++) {
+            tours.add(applyOptimization(inputs.get(i), plans.get(i)));
+        }
+        return tours;
+    }
+
+    private RuntimeException capacityExceeded(Vehicle vehicle, int deliveryCount, double weight, double volume) {
+        String errorMsg = String.format(
+                "Le véhicule %s ne peut pas transporter %d livraisons (Poids: %.1fkg/%.1fkg, Volume: %.2fm³/%.2fm³)",
+                vehicle.getLicensePlate(), deliveryCount, weight, vehicle.getMaxWeight(),
+                volume, vehicle.getMaxVolume());
+        logger.severe(errorMsg);
+        return new RuntimeException(errorMsg);
+    }
+
     public List<Delivery> getOptimizedTour(Long tourId, Tour.AlgorithmType algorithmType) {
         logger.info("Getting optimized tour for tour " + tourId + " with algorithm: " + algorithmType);
 
@@ -135,14 +289,92 @@ public class TourService {
         }
 
         Tour tour = tourOpt.get();
+        List<List<Delivery>> trips = optimizedTrips(tour,
+                optimizerRegistry.select(algorithmType, tour.getDeliveries(), tour.getVehicle()));
+
+        // Tous les trajets bout à bout, numérotés à la suite
+        List<Delivery> route = new ArrayList<>(tour.getDeliveries().size());
+        for (List<Delivery> trip : trips) {
+            for (Delivery delivery : trip) {
+                delivery.setOrder(route.size() + 1);
+                route.add(delivery);
+            }
+        }
+        return route;
+    }
+
+    // Trajets optimisés servis depuis le cache tant que la tournée n'a pas changé ; quand le véhicule
+    // impose plusieurs voyages, chacun repart de l'entrepôt et aucune livraison n'est écartée
+    private List<List<Delivery>> optimizedTrips(Tour tour, Tour.AlgorithmType algorithmType) {
         List<Delivery> deliveries = tour.getDeliveries();
         Warehouse warehouse = tour.getWarehouse();
         Vehicle vehicle = tour.getVehicle();
 
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
+        long fingerprint = OptimizationCache.fingerprint(warehouse, vehicle, deliveries);
+        long[][] cachedIds = optimizationCache.get(tour.getId(), algorithmType, fingerprint);
+        if (cachedIds != null) {
+            List<List<Delivery>> cachedTrips = reorder(deliveries, cachedIds);
+            if (cachedTrips != null) {
+                return cachedTrips;
+            }
+        }
+
+        // Les appelants simultanés attendent le calcul en cours puis réordonnent leurs propres livraisons
+        long[][] ids = routeCalls.execute(new RouteKey(tour.getId(), algorithmType, fingerprint), () -> {
+            TripPlan plan = optimizerRegistry.get(algorithmType).calculateTrips(warehouse, deliveries, vehicle);
+
+            long[][] tripIds = new long[plan.getTripCount()][];
+            for (int t = 0; t < tripIds.length; t++) {
+                List<Delivery> trip = plan.getTrips().get(t).getDeliveries();
+                tripIds[t] = new long[trip.size()];
+                for (int i = 0; i < trip.size(); i++) {
+                    tripIds[t][i] = trip.get(i).getId();
+                }
+            }
+            optimizationCache.put(tour.getId(), algorithmType, fingerprint, tripIds);
+            return tripIds;
+        });
+
+        List<List<Delivery>> trips = reorder(deliveries, ids);
+        if (trips == null) {
+            throw new RuntimeException("Optimized route does not match the deliveries of tour id: " + tour.getId());
+        }
+        return trips;
+    }
+
+    // Réapplique un ordre mis en cache aux livraisons chargées par la requête courante ;
+    // null si l'ordre ne couvre pas exactement chaque livraison une fois
+    private List<List<Delivery>> reorder(List<Delivery> deliveries, long[][] orderedIds) {
+        Map<Long, Delivery> byId = new HashMap<>();
+        for (Delivery delivery : deliveries) {
+            byId.put(delivery.getId(), delivery);
+        }
+
+        List<List<Delivery>> trips = new ArrayList<>(orderedIds.length);
+        for (long[] tripIds : orderedIds) {
+            List<Delivery> trip = new ArrayList<>(tripIds.length);
+            for (long id : tripIds) {
+                Delivery delivery = byId.remove(id);
+                if (delivery == null) {
+                    return null;
+                }
+                trip.add(delivery);
+            }
+            trips.add(trip);
+        }
+        return byId.isEmpty() ? trips : null;
+    }
+
+    public OptimizationCache.Stats getOptimizationCacheStats() {
+        return optimizationCache.getStats();
+    }
 
-        return optimizer.calculateOptimalTour(warehouse, deliveries, vehicle);
+    // Victoires du mode AUTO par tranche de taille de tournée
+    public Map<String, Map<Tour.AlgorithmType, Integer>> getPortfolioWins() {
+        return optimizerRegistry.find(Tour.AlgorithmType.AUTO)
+                .filter(PortfolioOptimizer.class::isInstance)
+                .map(optimizer -> ((PortfolioOptimizer) optimizer).getWinsBySize())
+                .orElse(Map.of());
     }
 
     public Double getTotalDistance(Long tourId, Tour.AlgorithmType algorithmType) {
@@ -157,20 +389,51 @@ public class TourService {
         List<Delivery> deliveries = tour.getDeliveries();
         Warehouse warehouse = tour.getWarehouse();
 
-        TourOptimizer optimizer = algorithmType == Tour.AlgorithmType.NEAREST_NEIGHBOR ?
-                nearestNeighborOptimizer : clarkeWrightOptimizer;
+        Tour.AlgorithmType resolved = optimizerRegistry.select(algorithmType, deliveries, tour.getVehicle());
+
+        // L'ordre enregistré provient déjà de cet algorithme et couvre toutes les livraisons :
+        // une simple évaluation en O(n) suffit
+        if (tour.getAlgorithmUsed() == resolved && hasStoredOrder(deliveries)) {
+            return RouteEvaluation.of(warehouse, deliveries).getTotalDistance();
+        }
 
-        return optimizer.calculateTotalDistance(warehouse, deliveries);
+        // Sinon les trajets optimisés (éventuellement en cache) sont évalués, chacun depuis l'entrepôt
+        double total = 0.0;
+        for (List<Delivery> trip : optimizedTrips(tour, resolved)) {
+            total += RouteEvaluation.of(warehouse, trip).getTotalDistance();
+        }
+        return total;
+    }
+
+    // Vrai si chaque livraison porte son rang 1..n dans l'ordre de la collection, sans trou ni valeur absente
+    private static boolean hasStoredOrder(List<Delivery> deliveries) {
+        for (int i = 0; i < deliveries.size(); i++) {
+            Integer order = deliveries.get(i).getOrder();
+            if (order == null || order != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Distance, charge et détail par trajet de la tournée dans son ordre enregistré
+    public RouteEvaluation evaluateTour(Long tourId) {
+        logger.info("Evaluating stored route of tour " + tourId);
+
+        Tour tour = tourRepository.findById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+
+        return RouteEvaluation.of(tour.getWarehouse(), tour.getDeliveries());
     }
 
     public List<Tour> getToursByDate(LocalDate date) {
         logger.info("Fetching tours for date: " + date);
-        return tourRepository.findByDate(date);
+        return tourRepository.findByDateWithDeliveries(date, null);
     }
 
     public List<Tour> getToursByVehicle(Long vehicleId) {
         logger.info("Fetching tours for vehicle id: " + vehicleId);
-        return tourRepository.findByVehicleId(vehicleId);
+        return tourRepository.findByVehicleIdWithDeliveries(vehicleId);
     }
 
     public List<Tour> getToursWithNearestNeighbor() {
@@ -193,8 +456,105 @@ public class TourService {
         Delivery delivery = deliveryRepository.findById(deliveryId)
                 .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + deliveryId));
 
+        Tour previousTour = delivery.getTour();
+        Integer previousOrder = delivery.getOrder();
+
         delivery.setTour(tour);
+        delivery.setOrder(null);
         deliveryRepository.save(delivery);
+        if (previousTour != null && !tourId.equals(previousTour.getId())) {
+            detachFromTour(previousTour, delivery, previousOrder);
+        }
+
+        // La livraison ajoutée n'a pas de rang : l'ordre enregistré ne provient plus d'aucun algorithme
+        tour.setAlgorithmUsed(null);
+        tourRepository.save(tour);
+        optimizationCache.invalidate(tourId);
+    }
+
+    // Commande tardive : la livraison est placée à sa position la moins chère dans l'ordre enregistré,
+    // sans réoptimiser la tournée ; les arrêts suivants sont décalés et la distance ajustée du surcoût
+    @Transactional
+    public void insertDeliveryIntoTour(Long tourId, Long deliveryId) {
+        logger.info("Inserting delivery " + deliveryId + " into tour " + tourId);
+
+        Tour tour = tourRepository.findById(tourId)
+                .orElseThrow(() -> new RuntimeException("Tour not found with id: " + tourId));
+
+        Delivery delivery = deliveryRepository.findById(deliveryId)
+                .orElseThrow(() -> new RuntimeException("Delivery not found with id: " + deliveryId));
+
+        if (delivery.getTour() != null && tourId.equals(delivery.getTour().getId())) {
+            throw new RuntimeException("Delivery " + deliveryId + " is already assigned to tour " + tourId);
+        }
+
+        // Arrêts dans l'ordre de passage (la collection est triée par ordre) : sans ordre complet,
+        // le surcoût d'insertion ne correspondrait pas à la séquence mesurée par totalDistance
+        List<Delivery> stops = new ArrayList<>(tour.getDeliveries());
+        double totalWeight = delivery.getWeight();
+        double totalVolume = delivery.getVolume();
+        for (Delivery stop : stops) {
+            if (stop.getOrder() == null) {
+                throw new RuntimeException("Tour " + tourId + " has unordered deliveries: optimize it before inserting");
+            }
+            totalWeight += stop.getWeight();
+            totalVolume += stop.getVolume();
+        }
+
+        Vehicle vehicle = tour.getVehicle();
+        if (vehicle != null && !vehicle.isValidForDelivery(totalWeight, totalVolume, stops.size() + 1)) {
+            throw new RuntimeException("Inserting delivery " + deliveryId + " would exceed the capacity of vehicle "
+                    + vehicle.getId() + ": optimize the tour into several trips instead");
+        }
+
+        // Position la moins chère parmi les n + 1 arêtes de la boucle entrepôt -> arrêts -> entrepôt
+        Warehouse warehouse = tour.getWarehouse();
+        int bestPosition = 0;
+        double bestDelta = Double.POSITIVE_INFINITY;
+        double previousLatitude = warehouse.getLatitude();
+        double previousLongitude = warehouse.getLongitude();
+        for (int position = 0; position <= stops.size(); position++) {
+            double nextLatitude = position < stops.size() ? stops.get(position).getLatitude() : warehouse.getLatitude();
+            double nextLongitude = position < stops.size() ? stops.get(position).getLongitude() : warehouse.getLongitude();
+            double delta = DistanceMatrix.haversine(previousLatitude, previousLongitude, delivery.getLatitude(), delivery.getLongitude())
+                    + DistanceMatrix.haversine(delivery.getLatitude(), delivery.getLongitude(), nextLatitude, nextLongitude)
+                    - DistanceMatrix.haversine(previousLatitude, previousLongitude, nextLatitude, nextLongitude);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                bestPosition = position;
+            }
+            previousLatitude = nextLatitude;
+            previousLongitude = nextLongitude;
+        }
+
+        int order;
+        if (bestPosition < stops.size()) {
+            order = stops.get(bestPosition).getOrder();
+            deliveryRepository.shiftOrders(tourId, order);
+        } else {
+            order = stops.isEmpty() ? 1 : stops.get(stops.size() - 1).getOrder() + 1;
+        }
+
+        // Livraison déplacée depuis une autre tournée : celle-ci est réparée comme lors d'un retrait
+        Tour previousTour = delivery.getTour();
+        Integer previousOrder = delivery.getOrder();
+
+        delivery.setTour(tour);
+        delivery.setOrder(order);
+        deliveryRepository.save(delivery);
+        if (previousTour != null) {
+            detachFromTour(previousTour, delivery, previousOrder);
+        }
+
+        // L'ordre modifié à la main ne provient plus d'aucun algorithme
+        double totalDistance = tour.getTotalDistance() != null ? tour.getTotalDistance() : 0.0;
+        tour.setTotalDistance(totalDistance + bestDelta);
+        tour.setAlgorithmUsed(null);
+        tourRepository.save(tour);
+        optimizationCache.invalidate(tourId);
+
+        logger.info("Delivery " + deliveryId + " inserted at position " + order + " of tour " + tourId
+                + " (+" + String.format("%.2f", bestDelta) + " km)");
     }
 
     @Transactional
@@ -208,9 +568,51 @@ public class TourService {
             throw new RuntimeException("Delivery " + deliveryId + " is not assigned to tour " + tourId);
         }
 
+        Tour tour = delivery.getTour();
+        Integer order = delivery.getOrder();
+
         delivery.setTour(null);
         delivery.setOrder(null);
         deliveryRepository.save(delivery);
+
+        detachFromTour(tour, delivery, order);
+    }
+
+    // Retire la livraison de son ancienne tournée : le prédécesseur est relié directement au successeur,
+    // le trou d'ordre est refermé et le cache de cette tournée invalidé
+    private void detachFromTour(Tour tour, Delivery delivery, Integer order) {
+        if (order != null) {
+            List<Delivery> stops = new ArrayList<>();
+            int index = -1;
+            for (Delivery stop : tour.getDeliveries()) {
+                if (stop == delivery) {
+                    index = stops.size();
+                    stops.add(stop);
+                } else if (stop.getOrder() != null) {
+                    stops.add(stop);
+                }
+            }
+            if (index >= 0 && tour.getTotalDistance() != null) {
+                Warehouse warehouse = tour.getWarehouse();
+                Delivery previous = index > 0 ? stops.get(index - 1) : null;
+                Delivery next = index < stops.size() - 1 ? stops.get(index + 1) : null;
+                double previousLatitude = previous != null ? previous.getLatitude() : warehouse.getLatitude();
+                double previousLongitude = previous != null ? previous.getLongitude() : warehouse.getLongitude();
+                double nextLatitude = next != null ? next.getLatitude() : warehouse.getLatitude();
+                double nextLongitude = next != null ? next.getLongitude() : warehouse.getLongitude();
+                double delta = DistanceMatrix.haversine(previousLatitude, previousLongitude, nextLatitude, nextLongitude)
+                        - DistanceMatrix.haversine(previousLatitude, previousLongitude, delivery.getLatitude(), delivery.getLongitude())
+                        - DistanceMatrix.haversine(delivery.getLatitude(), delivery.getLongitude(), nextLatitude, nextLongitude);
+                tour.setTotalDistance(Math.max(0.0, tour.getTotalDistance() + delta));
+            }
+        }
+        if (tour.getDeliveries().removeIf(stop -> stop == delivery)) {
+            tourRepository.save(tour);
+        }
+        if (order != null) {
+            deliveryRepository.compactOrders(tour.getId(), order);
+        }
+        optimizationCache.invalidate(tour.getId());
     }
 
     @Transactional
@@ -254,6 +656,7 @@ public class TourService {
         try {
             tour.validate();
             logger.info("Tour updated successfully for id: " + id);
+            optimizationCache.invalidate(id);
         } catch (IllegalArgumentException e) {
             logger.severe("Validation error while updating tour: " + e.getMessage());
             throw new RuntimeException("Erreur de validation: " + e.getMessage());
@@ -273,17 +676,19 @@ public class TourService {
 
         Tour tour = tourOpt.get();
 
-        // Désassocier les livraisons de cette tournée
-        if (!tour.getDeliveries().isEmpty()) {
-            for (Delivery delivery : tour.getDeliveries()) {
-                delivery.setTour(null);
-                delivery.setOrder(null);
-                deliveryRepository.save(delivery);
-            }
-            tour.getDeliveries().clear();
-        }
+        // Désassocier les livraisons de cette tournée en une seule requête ; la collection est vidée
+        // pour que la suppression en cascade ne les atteigne pas
+        deliveryRepository.unassignTour(id);
+        tour.getDeliveries().clear();
 
         tourRepository.delete(tour);
+        optimizationCache.invalidate(id);
         logger.info("Tour deleted successfully with id: " + id);
     }
-}
\ No newline at end of file
+
+    private record RouteKey(Long tourId, Tour.AlgorithmType algorithm, long fingerprint) {
+    }
+
+    private record OptimizeKey(Long tourId, Tour.AlgorithmType algorithm, Instant deadline) {
+    }
+}
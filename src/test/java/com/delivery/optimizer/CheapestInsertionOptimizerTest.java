@@ -0,0 +1,123 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheapestInsertionOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateRoute_ShouldVisitEveryDeliveryOnce() {
+        // Arrange
+        List<Delivery> deliveries = clusteredDeliveries(3000, 31L);
+        DistanceMatrix matrix = DistanceMatrix.onDemand(warehouse, deliveries);
+        CheapestInsertionOptimizer optimizer = new CheapestInsertionOptimizer();
+
+        // Act
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(3000, route.length);
+        assertEquals(3000, Arrays.stream(route).distinct().count());
+        assertEquals(Tour.AlgorithmType.CHEAPEST_INSERTION, optimizer.getAlgorithmType());
+    }
+
+    @Test
+    void calculateRoute_WithoutPruning_ShouldMatchNaiveCheapestInsertion() {
+        // Arrange : k >= n, toutes les arêtes sont candidates
+        List<Delivery> deliveries = clusteredDeliveries(80, 32L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act
+        int[] route = new CheapestInsertionOptimizer(80).calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(naiveCheapestInsertion(matrix), matrix.routeDistance(route), 1e-9);
+    }
+
+    @Test
+    void calculateRoute_WithClusteredCustomers_ShouldBeatNearestNeighbor() {
+        // Arrange
+        List<Delivery> deliveries = clusteredDeliveries(2000, 33L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act
+        int[] insertion = new CheapestInsertionOptimizer().calculateRoute(matrix, deliveries, null);
+        int[] nearestNeighbor = new NearestNeighborOptimizer().calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertTrue(matrix.routeDistance(insertion) < matrix.routeDistance(nearestNeighbor),
+                "insertion " + matrix.routeDistance(insertion) + " km vs Nearest Neighbor "
+                        + matrix.routeDistance(nearestNeighbor) + " km");
+    }
+
+    // Référence en O(n³) : toutes les livraisons restantes sur toutes les arêtes à chaque étape
+    private double naiveCheapestInsertion(DistanceMatrix matrix) {
+        int n = matrix.deliveryCount();
+        List<Integer> tour = new ArrayList<>(List.of(DistanceMatrix.DEPOT));
+        boolean[] routed = new boolean[n + 1];
+        for (int step = 0; step < n; step++) {
+            int bestNode = -1;
+            int bestPosition = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int u = 1; u <= n; u++) {
+                if (routed[u]) {
+                    continue;
+                }
+                for (int i = 0; i < tour.size(); i++) {
+                    int a = tour.get(i);
+                    int b = tour.get((i + 1) % tour.size());
+                    double cost = matrix.distance(a, u) + matrix.distance(u, b) - matrix.distance(a, b);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestNode = u;
+                        bestPosition = i + 1;
+                    }
+                }
+            }
+            tour.add(bestPosition, bestNode);
+            routed[bestNode] = true;
+        }
+        return matrix.routeDistance(tour.subList(1, tour.size()).stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // Livraisons regroupées autour de quelques quartiers
+    private List<Delivery> clusteredDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        double[][] centers = new double[12][2];
+        for (double[] center : centers) {
+            center[0] = 33.45 + random.nextDouble() * 0.25;
+            center[1] = -7.75 + random.nextDouble() * 0.35;
+        }
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double[] center = centers[random.nextInt(centers.length)];
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(center[0] + random.nextGaussian() * 0.008);
+            delivery.setLongitude(center[1] + random.nextGaussian() * 0.008);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,173 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClarkeWrightOptimizerTest {
+
+    // Écart maximal accepté entre le mode granulaire et l'algorithme complet
+    private static final double GRANULAR_TOLERANCE = 0.03;
+
+    private ClarkeWrightOptimizer optimizer;
+    private Warehouse warehouse;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        optimizer = new ClarkeWrightOptimizer();
+
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(500.0);
+    }
+
+    @Test
+    void calculateOptimalTour_WithoutVehicle_ShouldMergeAllDeliveriesIntoOneRoute() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(80, 3L);
+
+        // Act
+        List<Delivery> result = optimizer.calculateOptimalTour(warehouse, deliveries, null);
+
+        // Assert
+        assertEquals(80, result.size());
+        assertEquals(80, result.stream().distinct().count());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i + 1, result.get(i).getOrder());
+        }
+    }
+
+    @Test
+    void calculateOptimalTour_ShouldBeatNearestNeighborOnRandomInstance() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(120, 11L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act
+        double clarkeWright = matrix.routeDistance(optimizer.calculateRoute(matrix, deliveries, null));
+        double nearestNeighbor = matrix.routeDistance(
+                new NearestNeighborOptimizer(Integer.MAX_VALUE).calculateRoute(matrix, deliveries, null));
+
+        // Assert
+        assertTrue(clarkeWright < nearestNeighbor,
+                "Clarke & Wright " + clarkeWright + " km vs Nearest Neighbor " + nearestNeighbor + " km");
+    }
+
+    @Test
+    void calculateOptimalTour_WhenVehicleForcesSeveralTrips_ShouldRejectInsteadOfDroppingDeliveries() {
+        // Arrange : 40 × 5 kg pour 100 kg par voyage
+        List<Delivery> deliveries = randomDeliveries(40, 5L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> optimizer.calculateOptimalTour(warehouse, deliveries, vehicle));
+        assertThrows(IllegalStateException.class, () -> optimizer.calculateRoute(matrix, deliveries, vehicle));
+        assertEquals(20, optimizer.calculateOptimalTour(warehouse, deliveries.subList(0, 20), vehicle).size());
+    }
+
+    @Test
+    void calculateTrips_WithVehicle_ShouldReturnEveryDeliveryAcrossTrips() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(40, 5L);
+
+        // Act
+        TripPlan plan = optimizer.calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertTrue(plan.getTripCount() >= 2);
+        assertEquals(40, plan.getDeliveryCount());
+        for (Trip trip : plan.getTrips()) {
+            assertTrue(trip.getWeight() <= vehicle.getMaxWeight());
+            assertEquals(1, trip.getDeliveries().get(0).getOrder());
+        }
+    }
+
+    @Test
+    void calculateRoutes_WithVehicle_ShouldRespectRange() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(60, 13L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        vehicle.setMaxWeight(1000.0);
+        vehicle.setRange(60.0);
+
+        // Act
+        int[][] routes = optimizer.calculateRoutes(matrix, deliveries, vehicle);
+
+        // Assert
+        assertEquals(60, Arrays.stream(routes).mapToInt(route -> route.length).sum());
+        for (int[] route : routes) {
+            assertTrue(matrix.routeDistance(route) <= vehicle.getRange());
+        }
+    }
+
+    @Test
+    void calculateRoute_WithManyDeliveries_ShouldMergeQuickly() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(600, 9L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act
+        long start = System.nanoTime();
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(600, route.length);
+        assertTrue(elapsedMs < 2_000, "Clarke & Wright took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void granularSavings_ShouldStayWithinToleranceOfFullSavings() {
+        ClarkeWrightOptimizer full = new ClarkeWrightOptimizer(Integer.MAX_VALUE, 1);
+        ClarkeWrightOptimizer granular = new ClarkeWrightOptimizer(0, ClarkeWrightOptimizer.DEFAULT_GRANULAR_NEIGHBORS);
+
+        for (long seed = 1; seed <= 3; seed++) {
+            // Arrange
+            List<Delivery> deliveries = randomDeliveries(1000, seed);
+            DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+            // Act
+            double fullDistance = matrix.routeDistance(full.calculateRoute(matrix, deliveries, null));
+            int[] granularRoute = granular.calculateRoute(DistanceMatrix.onDemand(warehouse, deliveries), deliveries, null);
+            double granularDistance = matrix.routeDistance(granularRoute);
+
+            // Assert
+            assertEquals(1000, granularRoute.length);
+            assertEquals(1000, Arrays.stream(granularRoute).distinct().count());
+            assertTrue(granularDistance <= fullDistance * (1 + GRANULAR_TOLERANCE),
+                    "Granular " + granularDistance + " km vs full " + fullDistance + " km");
+        }
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
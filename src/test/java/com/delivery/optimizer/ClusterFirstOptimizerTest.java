@@ -0,0 +1,146 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterFirstOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateTrips_ShouldServeEveryDeliveryOnceWithinCapacity() {
+        // Arrange : 3000 livraisons de 5 kg, 100 kg par voyage
+        List<Delivery> deliveries = randomDeliveries(3000, 11L);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(500.0);
+        ClusterFirstOptimizer optimizer = new ClusterFirstOptimizer(new TwoOptOptimizer(new NearestNeighborOptimizer()));
+
+        // Act
+        TripPlan plan = optimizer.calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertEquals(3000, plan.getDeliveryCount());
+        assertEquals(3000, plan.getTrips().stream()
+                .flatMap(trip -> trip.getDeliveries().stream())
+                .map(Delivery::getId)
+                .distinct()
+                .count());
+        assertTrue(plan.getTrips().stream().allMatch(trip -> trip.getWeight() <= 100.0 && trip.getDeliveryCount() <= 50));
+        assertTrue(plan.getTripCount() >= 150);
+    }
+
+    @Test
+    void calculateTrips_WithClarkeWrightDelegate_ShouldMatchFullClarkeWright() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(3000, 12L);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(500.0);
+        ClusterFirstOptimizer optimizer = new ClusterFirstOptimizer(new TwoOptOptimizer(new ClarkeWrightOptimizer()));
+
+        // Act
+        TripPlan clustered = optimizer.calculateTrips(warehouse, deliveries, vehicle);
+        TripPlan full = new ClarkeWrightOptimizer().calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertEquals(3000, clustered.getDeliveryCount());
+        assertTrue(clustered.getTotalDistance() < 1.05 * full.getTotalDistance(),
+                "cluster-first " + clustered.getTotalDistance() + " km vs Clarke-Wright " + full.getTotalDistance() + " km");
+    }
+
+    @Test
+    void calculateRoute_ShouldStitchClustersIntoOneTourCompetitiveWithNearestNeighbor() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(2000, 4L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer();
+        ClusterFirstOptimizer optimizer = new ClusterFirstOptimizer(new TwoOptOptimizer(nearestNeighbor), 200);
+
+        // Act
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(2000, route.length);
+        assertEquals(2000, Arrays.stream(route).distinct().count());
+        double nearestNeighborDistance = matrix.routeDistance(nearestNeighbor.calculateRoute(matrix, deliveries, null));
+        assertTrue(matrix.routeDistance(route) < 1.1 * nearestNeighborDistance,
+                "cluster-first " + matrix.routeDistance(route) + " km vs Nearest Neighbor " + nearestNeighborDistance + " km");
+    }
+
+    @Test
+    void calculateRoute_WithCapacityLimitedVehicleAndClarkeWrightDelegate_ShouldKeepEveryDelivery() {
+        // Arrange : chaque grappe de 100 livraisons de 5 kg demande plusieurs voyages de 100 kg
+        List<Delivery> deliveries = randomDeliveries(500, 13L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(500.0);
+        ClusterFirstOptimizer optimizer = new ClusterFirstOptimizer(
+                new OrOptOptimizer(new TwoOptOptimizer(new ClarkeWrightOptimizer())), 100);
+
+        // Act
+        int[] route = optimizer.calculateRoute(matrix, deliveries, vehicle);
+
+        // Assert : ni livraison perdue, ni entrepôt (indice 0) en fin de tableau
+        assertEquals(500, route.length);
+        assertEquals(500, Arrays.stream(route).distinct().count());
+        assertTrue(Arrays.stream(route).allMatch(node -> node >= 1 && node <= 500));
+    }
+
+    @Test
+    void partition_ShouldCutSweepAtMaxClusterSize() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(95, 2L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act
+        int[][] clusters = SweepPartition.partition(matrix, deliveries, null, 20);
+
+        // Assert
+        assertEquals(5, clusters.length);
+        assertEquals(95, Arrays.stream(clusters).mapToInt(cluster -> cluster.length).sum());
+        assertTrue(Arrays.stream(clusters).allMatch(cluster -> cluster.length <= 20));
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
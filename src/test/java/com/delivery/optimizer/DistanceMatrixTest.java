@@ -0,0 +1,100 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceMatrixTest {
+
+    private Warehouse warehouse;
+    private List<Delivery> deliveries;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        deliveries = Arrays.asList(
+                delivery(1L, 33.5741, -7.5908),
+                delivery(2L, 33.5900, -7.6100),
+                delivery(3L, 33.5500, -7.5600)
+        );
+    }
+
+    @Test
+    void of_ShouldPlaceWarehouseAtIndexZero() {
+        // Act
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Assert
+        assertEquals(4, matrix.size());
+        assertEquals(3, matrix.deliveryCount());
+        assertEquals(DistanceMatrix.haversine(33.5731, -7.5898, 33.5900, -7.6100),
+                matrix.distance(DistanceMatrix.DEPOT, 2), 1e-9);
+    }
+
+    @Test
+    void distance_ShouldBeSymmetricWithZeroDiagonal() {
+        // Act
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Assert
+        for (int i = 0; i < matrix.size(); i++) {
+            assertEquals(0.0, matrix.distance(i, i));
+            for (int j = 0; j < matrix.size(); j++) {
+                assertEquals(matrix.distance(i, j), matrix.distance(j, i));
+            }
+        }
+    }
+
+    @Test
+    void routeDistance_ShouldIncludeLegsFromAndToWarehouse() {
+        // Arrange
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        int[] route = {2, 1, 3};
+
+        // Act
+        double distance = matrix.routeDistance(route);
+
+        // Assert
+        double expected = matrix.distance(0, 2) + matrix.distance(2, 1) + matrix.distance(1, 3) + matrix.distance(3, 0);
+        assertEquals(expected, distance, 1e-9);
+        assertEquals(0.0, matrix.routeDistance(new int[0]));
+    }
+
+    @Test
+    void of_WhenDenseMatrixWouldOverflowIntIndexing_ShouldFallBackToOnDemand() {
+        // Arrange : 50 001 nœuds, soit plus de 2^31 cellules
+        List<Delivery> many = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            many.add(delivery((long) i + 1, 33.45 + i * 1e-6, -7.75 + i * 1e-6));
+        }
+
+        // Act
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, many);
+
+        // Assert
+        assertFalse(matrix.isDense());
+        assertEquals(50_000, matrix.deliveryCount());
+        assertEquals(DistanceMatrix.haversine(33.5731, -7.5898, 33.45 + 49_999e-6, -7.75 + 49_999e-6),
+                matrix.distance(DistanceMatrix.DEPOT, 50_000), 1e-9);
+    }
+
+    private Delivery delivery(Long id, double latitude, double longitude) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setLatitude(latitude);
+        delivery.setLongitude(longitude);
+        delivery.setWeight(5.0);
+        delivery.setVolume(0.5);
+        return delivery;
+    }
+}
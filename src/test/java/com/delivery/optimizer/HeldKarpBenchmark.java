@@ -0,0 +1,71 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Lancement : mvn test -Dtest=HeldKarpBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HeldKarpBenchmark {
+
+    @Test
+    void latencyPerTourSize() {
+        // Les logs par appel fausseraient les mesures
+        Logger.getLogger("com.delivery.optimizer").setLevel(Level.WARNING);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        HeldKarpOptimizer exact = new HeldKarpOptimizer();
+        TourOptimizer heuristic = new OrOptOptimizer(new TwoOptOptimizer(new NearestNeighborOptimizer()));
+
+        System.out.printf("%8s %16s %16s %12s%n", "stops", "exact (ms)", "2-opt (ms)", "gap (%)");
+        for (int size = 4; size <= HeldKarpOptimizer.MAX_DELIVERIES; size++) {
+            List<Delivery> deliveries = randomDeliveries(size);
+            DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+            double exactMs = measure(exact, warehouse, deliveries);
+            double heuristicMs = measure(heuristic, warehouse, deliveries);
+            double optimum = matrix.routeDistance(exact.calculateRoute(matrix, deliveries, null));
+            double approximate = matrix.routeDistance(heuristic.calculateRoute(matrix, deliveries, null));
+            System.out.printf("%8d %16.3f %16.3f %12.2f%n", size, exactMs, heuristicMs,
+                    (approximate - optimum) / optimum * 100);
+        }
+    }
+
+    private double measure(TourOptimizer optimizer, Warehouse warehouse, List<Delivery> deliveries) {
+        // Préchauffage du JIT
+        for (int i = 0; i < 5; i++) {
+            optimizer.calculateOptimalTour(warehouse, deliveries, null);
+        }
+
+        int iterations = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            optimizer.calculateOptimalTour(warehouse, deliveries, null);
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private List<Delivery> randomDeliveries(int count) {
+        Random random = new Random(42);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
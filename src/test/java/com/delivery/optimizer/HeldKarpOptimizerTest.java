@@ -0,0 +1,106 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeldKarpOptimizerTest {
+
+    private HeldKarpOptimizer optimizer;
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        optimizer = new HeldKarpOptimizer();
+
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateRoute_ShouldMatchBruteForceOptimum() {
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange
+            List<Delivery> deliveries = randomDeliveries(8, seed);
+            DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+            int[] nodes = {1, 2, 3, 4, 5, 6, 7, 8};
+
+            // Act
+            double exact = matrix.routeDistance(optimizer.calculateRoute(matrix, deliveries, null));
+            double bruteForce = bruteForce(matrix, nodes, 0);
+
+            // Assert
+            assertEquals(bruteForce, exact, 1e-9);
+        }
+    }
+
+    @Test
+    void calculateRoute_WithBikeSizedTour_ShouldNeverBeWorseThanHeuristics() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(15, 9L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        TourOptimizer heuristic = new OrOptOptimizer(new TwoOptOptimizer(new NearestNeighborOptimizer()));
+
+        // Act
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(15, Arrays.stream(route).distinct().count());
+        assertTrue(matrix.routeDistance(route)
+                <= matrix.routeDistance(heuristic.calculateRoute(matrix, deliveries, null)) + 1e-9);
+    }
+
+    @Test
+    void calculateRoute_WithTooManyDeliveries_ShouldThrowException() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(HeldKarpOptimizer.MAX_DELIVERIES + 1, 1L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> optimizer.calculateRoute(matrix, deliveries, null));
+    }
+
+    // Énumère toutes les permutations de nodes[from..] et retourne la plus courte tournée
+    private double bruteForce(DistanceMatrix matrix, int[] nodes, int from) {
+        if (from == nodes.length) {
+            return matrix.routeDistance(nodes);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = from; i < nodes.length; i++) {
+            swap(nodes, from, i);
+            best = Math.min(best, bruteForce(matrix, nodes, from + 1));
+            swap(nodes, from, i);
+        }
+        return best;
+    }
+
+    private void swap(int[] nodes, int i, int j) {
+        int tmp = nodes[i];
+        nodes[i] = nodes[j];
+        nodes[j] = tmp;
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,70 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Lancement : mvn test -Dtest=NearestNeighborBenchmark -Dbenchmark=true
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class NearestNeighborBenchmark {
+
+    private static final int[] SIZES = {10, 25, 40, 50, 100, 200, 400, 800, 1600, 3200};
+
+    @Test
+    void linearScanVersusSpatialIndex() {
+        // Les logs par appel fausseraient les mesures
+        Logger.getLogger("com.delivery.optimizer").setLevel(Level.WARNING);
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        NearestNeighborOptimizer linearScan = new NearestNeighborOptimizer(Integer.MAX_VALUE);
+        NearestNeighborOptimizer spatialIndex = new NearestNeighborOptimizer(0);
+
+        System.out.printf("%8s %16s %16s%n", "stops", "linear (ms)", "kd-tree (ms)");
+        for (int size : SIZES) {
+            List<Delivery> deliveries = randomDeliveries(size);
+            double linearMs = measure(linearScan, warehouse, deliveries);
+            double spatialMs = measure(spatialIndex, warehouse, deliveries);
+            System.out.printf("%8d %16.3f %16.3f%s%n", size, linearMs, spatialMs,
+                    spatialMs < linearMs ? "  <- kd-tree" : "");
+        }
+    }
+
+    private double measure(TourOptimizer optimizer, Warehouse warehouse, List<Delivery> deliveries) {
+        // Préchauffage du JIT
+        for (int i = 0; i < 20; i++) {
+            optimizer.calculateOptimalTour(warehouse, deliveries, null);
+        }
+
+        int iterations = 50;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            optimizer.calculateOptimalTour(warehouse, deliveries, null);
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private List<Delivery> randomDeliveries(int count) {
+        Random random = new Random(42);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
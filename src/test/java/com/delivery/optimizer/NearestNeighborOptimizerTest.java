@@ -0,0 +1,107 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearestNeighborOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateOptimalTour_ShouldVisitEveryDeliveryOnceWithSequentialOrder() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(50, 1L);
+
+        // Act
+        List<Delivery> result = new NearestNeighborOptimizer().calculateOptimalTour(warehouse, deliveries, null);
+
+        // Assert
+        assertEquals(50, result.size());
+        assertEquals(50, result.stream().distinct().count());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i + 1, result.get(i).getOrder());
+        }
+    }
+
+    @Test
+    void spatialIndexMode_ShouldProduceSameRouteAsLinearScan() {
+        NearestNeighborOptimizer linearScan = new NearestNeighborOptimizer(Integer.MAX_VALUE);
+        NearestNeighborOptimizer spatialIndex = new NearestNeighborOptimizer(0);
+
+        for (long seed = 1; seed <= 5; seed++) {
+            // Arrange
+            List<Delivery> deliveries = randomDeliveries(300, seed);
+
+            // Act
+            int[] expected = linearScan.calculateRoute(DistanceMatrix.of(warehouse, deliveries), deliveries, null);
+            int[] actual = spatialIndex.calculateRoute(DistanceMatrix.onDemand(warehouse, deliveries), deliveries, null);
+
+            // Assert
+            assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void calculateRoute_WhenThreadIsInterrupted_ShouldStop() {
+        // Arrange : candidat abandonné par une course du portefeuille
+        List<Delivery> deliveries = randomDeliveries(300, 6L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        Thread.currentThread().interrupt();
+
+        try {
+            // Act & Assert
+            assertThrows(CancellationException.class,
+                    () -> new NearestNeighborOptimizer().calculateRoute(matrix, deliveries, null));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void kdTree_ShouldNeverReturnRemovedDeliveries() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(20, 7L);
+        KdTree tree = KdTree.of(DistanceMatrix.onDemand(warehouse, deliveries));
+
+        // Act
+        int first = tree.nearest(DistanceMatrix.DEPOT);
+        boolean removed = tree.remove(first);
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(tree.remove(first));
+        assertEquals(19, tree.size());
+        assertNotEquals(first, tree.nearest(DistanceMatrix.DEPOT));
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,108 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizerRegistryTest {
+
+    @Test
+    void constructor_ShouldRegisterOptimizersUnderTheirDeclaredAlgorithm() {
+        // Arrange
+        NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer();
+        ClarkeWrightOptimizer clarkeWright = new ClarkeWrightOptimizer();
+        TwoOptOptimizer innerTwoOpt = new TwoOptOptimizer(nearestNeighbor);
+        OrOptOptimizer localSearch = new OrOptOptimizer(innerTwoOpt);
+        localSearch.setAlgorithmType(Tour.AlgorithmType.NEAREST_NEIGHBOR_LOCAL_SEARCH);
+
+        // Act
+        OptimizerRegistry registry = new OptimizerRegistry(List.of(nearestNeighbor, clarkeWright, innerTwoOpt, localSearch));
+
+        // Assert : le 2-opt interne ne déclare aucun algorithme et n'est pas exposé
+        assertEquals(3, registry.getAlgorithms().size());
+        assertSame(nearestNeighbor, registry.get(Tour.AlgorithmType.NEAREST_NEIGHBOR));
+        assertSame(clarkeWright, registry.get(Tour.AlgorithmType.CLARKE_WRIGHT));
+        assertSame(localSearch, registry.get(Tour.AlgorithmType.NEAREST_NEIGHBOR_LOCAL_SEARCH));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(Tour.AlgorithmType.EXACT));
+    }
+
+    @Test
+    void constructor_WithTwoOptimizersForSameAlgorithm_ShouldFail() {
+        assertThrows(IllegalStateException.class,
+                () -> new OptimizerRegistry(List.of(new NearestNeighborOptimizer(), new NearestNeighborOptimizer())));
+    }
+
+    @Test
+    void select_WhenRequestedAlgorithmExceedsHeap_ShouldFallBackToCheaperOne() {
+        // Arrange : Clarke-Wright non granulaire, donc n² / 2 économies
+        Map<Tour.AlgorithmType, TourOptimizer> optimizers = new EnumMap<>(Tour.AlgorithmType.class);
+        optimizers.put(Tour.AlgorithmType.CLARKE_WRIGHT, new ClarkeWrightOptimizer(Integer.MAX_VALUE, 25));
+        optimizers.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, new NearestNeighborOptimizer());
+        OptimizerRegistry registry = new OptimizerRegistry(optimizers, () -> 256L * 1024 * 1024);
+        List<Delivery> deliveries = deliveries(20_000);
+
+        // Act & Assert
+        assertEquals(Tour.AlgorithmType.NEAREST_NEIGHBOR,
+                registry.select(Tour.AlgorithmType.CLARKE_WRIGHT, deliveries, null));
+        assertEquals(Tour.AlgorithmType.CLARKE_WRIGHT,
+                registry.select(Tour.AlgorithmType.CLARKE_WRIGHT, deliveries(500), null));
+    }
+
+    @Test
+    void select_WithSmallAutoTourFittingVehicle_ShouldUseExact() {
+        // Arrange
+        OptimizerRegistry registry = OptimizerRegistry.of(exactAndClarkeWright());
+        Vehicle vehicle = bike();
+
+        // Act & Assert : 8 × 5 kg tiennent sur un vélo, 12 × 5 kg non
+        assertEquals(Tour.AlgorithmType.EXACT, registry.select(Tour.AlgorithmType.AUTO, deliveries(8), vehicle));
+        assertEquals(Tour.AlgorithmType.EXACT, registry.select(null, deliveries(8), vehicle));
+        assertEquals(Tour.AlgorithmType.AUTO, registry.select(Tour.AlgorithmType.AUTO, deliveries(12), vehicle));
+    }
+
+    @Test
+    void select_WithExplicitAlgorithm_ShouldKeepItForSmallTour() {
+        // Arrange
+        OptimizerRegistry registry = OptimizerRegistry.of(exactAndClarkeWright());
+
+        // Act & Assert
+        assertEquals(Tour.AlgorithmType.CLARKE_WRIGHT,
+                registry.select(Tour.AlgorithmType.CLARKE_WRIGHT, deliveries(8), bike()));
+    }
+
+    private Map<Tour.AlgorithmType, TourOptimizer> exactAndClarkeWright() {
+        Map<Tour.AlgorithmType, TourOptimizer> optimizers = new EnumMap<>(Tour.AlgorithmType.class);
+        optimizers.put(Tour.AlgorithmType.CLARKE_WRIGHT, new ClarkeWrightOptimizer());
+        optimizers.put(Tour.AlgorithmType.EXACT, new HeldKarpOptimizer());
+        return optimizers;
+    }
+
+    private Vehicle bike() {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setMaxWeight(50.0);
+        vehicle.setMaxVolume(0.5);
+        vehicle.setMaxDeliveries(15);
+        return vehicle;
+    }
+
+    private List<Delivery> deliveries(int count) {
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.01);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
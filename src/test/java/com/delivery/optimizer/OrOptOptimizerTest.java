@@ -0,0 +1,81 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrOptOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateRoute_AfterTwoOpt_ShouldShortenRouteFurther() {
+        for (long seed = 1; seed <= 3; seed++) {
+            // Arrange
+            List<Delivery> deliveries = randomDeliveries(300, seed);
+            DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+            TwoOptOptimizer twoOpt = new TwoOptOptimizer(new NearestNeighborOptimizer());
+
+            // Act
+            double before = matrix.routeDistance(twoOpt.calculateRoute(matrix, deliveries, null));
+            int[] route = new OrOptOptimizer(twoOpt).calculateRoute(matrix, deliveries, null);
+
+            // Assert
+            assertEquals(300, route.length);
+            assertEquals(300, Arrays.stream(route).distinct().count());
+            assertTrue(Arrays.stream(route).allMatch(node -> node >= 1 && node <= 300));
+            assertTrue(matrix.routeDistance(route) < before,
+                    "Or-opt " + matrix.routeDistance(route) + " km vs 2-opt " + before + " km");
+        }
+    }
+
+    @Test
+    void move_ShouldRelocateChainBackwardAndForward() {
+        // Arrange
+        int[] tour = {0, 1, 2, 3, 4, 5, 6};
+        int[] pos = {0, 1, 2, 3, 4, 5, 6};
+        int[] segment = new int[OrOptOptimizer.MAX_SEGMENT_LENGTH];
+
+        // Act : chaîne 4..5 insérée inversée après 1, puis 1 insérée après 6
+        OrOptOptimizer.move(tour, pos, segment, 4, 5, 1, true);
+        int[] afterBackward = tour.clone();
+        OrOptOptimizer.move(tour, pos, segment, 1, 1, 6, false);
+
+        // Assert
+        assertArrayEquals(new int[]{0, 1, 5, 4, 2, 3, 6}, afterBackward);
+        assertArrayEquals(new int[]{0, 5, 4, 2, 3, 6, 1}, tour);
+        for (int i = 0; i < tour.length; i++) {
+            assertEquals(i, pos[tour[i]]);
+        }
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
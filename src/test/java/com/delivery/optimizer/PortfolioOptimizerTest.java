@@ -0,0 +1,203 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioOptimizerTest {
+
+    private Warehouse warehouse;
+    private Vehicle vehicle;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+
+        vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.TRUCK);
+        vehicle.setMaxWeight(5000.0);
+        vehicle.setMaxVolume(50.0);
+        vehicle.setMaxDeliveries(500);
+        vehicle.setRange(1000.0);
+    }
+
+    @Test
+    void calculateTrips_ShouldKeepShortestRouteAndRecordWinner() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(200, 3L);
+        NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer();
+        Map<Tour.AlgorithmType, TourOptimizer> candidates = new LinkedHashMap<>();
+        candidates.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, nearestNeighbor);
+        candidates.put(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT, new TwoOptOptimizer(nearestNeighbor));
+        PortfolioOptimizer portfolio = new PortfolioOptimizer(candidates, 2000);
+
+        try {
+            // Act
+            TripPlan plan = portfolio.calculateTrips(warehouse, deliveries, vehicle);
+
+            // Assert
+            assertEquals(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT, plan.getAlgorithm());
+            assertEquals(200, plan.getDeliveryCount());
+            double nearestNeighborDistance = nearestNeighbor.calculateTrips(warehouse, deliveries, vehicle).getTotalDistance();
+            assertTrue(plan.getTotalDistance() < nearestNeighborDistance);
+            assertEquals(1, portfolio.getWinsBySize().get("128-255").get(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT));
+        } finally {
+            portfolio.shutdown();
+        }
+    }
+
+    @Test
+    void calculateTrips_WhenCandidateMissesDeadline_ShouldReturnAtDeadlineWithOtherResult() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(50, 5L);
+        Map<Tour.AlgorithmType, TourOptimizer> candidates = new LinkedHashMap<>();
+        candidates.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, new NearestNeighborOptimizer());
+        candidates.put(Tour.AlgorithmType.CLARKE_WRIGHT, new AbstractTourOptimizer() {
+            @Override
+            public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new int[0];
+            }
+        });
+        PortfolioOptimizer portfolio = new PortfolioOptimizer(candidates);
+
+        try {
+            // Act
+            long start = System.nanoTime();
+            TripPlan plan = portfolio.calculateTrips(warehouse, deliveries, vehicle, Instant.now().plusMillis(200));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertEquals(Tour.AlgorithmType.NEAREST_NEIGHBOR, plan.getAlgorithm());
+            assertEquals(50, plan.getDeliveryCount());
+            assertTrue(elapsedMillis < 2_000, "race took " + elapsedMillis + " ms");
+        } finally {
+            portfolio.shutdown();
+        }
+    }
+
+    @Test
+    void calculateTrips_WhileStragglerHoldsPool_ShouldSkipCandidateInsteadOfQueueing() {
+        // Arrange : un candidat qui ignore l'interruption et occupe son thread 1,5 s
+        List<Delivery> deliveries = randomDeliveries(50, 7L);
+        AtomicInteger calls = new AtomicInteger();
+        Map<Tour.AlgorithmType, TourOptimizer> candidates = new LinkedHashMap<>();
+        candidates.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, new NearestNeighborOptimizer());
+        candidates.put(Tour.AlgorithmType.CLARKE_WRIGHT, new AbstractTourOptimizer() {
+            @Override
+            public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+                calls.incrementAndGet();
+                long end = System.nanoTime() + 1_500_000_000L;
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                return new int[0];
+            }
+        });
+        PortfolioOptimizer portfolio = new PortfolioOptimizer(candidates);
+
+        try {
+            portfolio.calculateTrips(warehouse, deliveries, vehicle, Instant.now().plusMillis(100));
+
+            // Act : la course suivante ne peut pas attendre le retardataire
+            long start = System.nanoTime();
+            TripPlan plan = portfolio.calculateTrips(warehouse, deliveries, vehicle, Instant.now().plusMillis(1_000));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Assert
+            assertEquals(Tour.AlgorithmType.NEAREST_NEIGHBOR, plan.getAlgorithm());
+            assertEquals(1, calls.get());
+            assertTrue(elapsedMillis < 500, "race took " + elapsedMillis + " ms");
+        } finally {
+            portfolio.shutdown();
+        }
+    }
+
+    @Test
+    void calculateTrips_WhenCandidateIgnoresCapacity_ShouldNotLetItWin() {
+        // Arrange : 30 livraisons de 5 kg, 50 kg par voyage
+        List<Delivery> deliveries = randomDeliveries(30, 9L);
+        vehicle.setMaxWeight(50.0);
+        Map<Tour.AlgorithmType, TourOptimizer> candidates = new LinkedHashMap<>();
+        candidates.put(Tour.AlgorithmType.EXACT, new AbstractTourOptimizer() {
+            @Override
+            public int[] calculateRoute(DistanceMatrix matrix, List<Delivery> deliveries, Vehicle vehicle) {
+                return new NearestNeighborOptimizer().calculateRoute(matrix, deliveries, vehicle);
+            }
+        });
+        candidates.put(Tour.AlgorithmType.CLARKE_WRIGHT, new ClarkeWrightOptimizer());
+        PortfolioOptimizer portfolio = new PortfolioOptimizer(candidates, 2000);
+
+        try {
+            // Act
+            TripPlan plan = portfolio.calculateTrips(warehouse, deliveries, vehicle);
+
+            // Assert
+            assertEquals(Tour.AlgorithmType.CLARKE_WRIGHT, plan.getAlgorithm());
+            assertTrue(plan.getTrips().stream().allMatch(trip -> trip.getWeight() <= 50.0));
+        } finally {
+            portfolio.shutdown();
+        }
+    }
+
+    @Test
+    void learnedDefault_AfterConsistentWins_ShouldSkipRaceExceptOnExplorationTurns() {
+        // Arrange
+        Map<Tour.AlgorithmType, TourOptimizer> candidates = new LinkedHashMap<>();
+        candidates.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, new NearestNeighborOptimizer());
+        PortfolioOptimizer portfolio = new PortfolioOptimizer(candidates);
+        for (int i = 0; i < PortfolioOptimizer.MIN_RACES; i++) {
+            portfolio.recordWin(100, Tour.AlgorithmType.CLARKE_WRIGHT);
+        }
+
+        try {
+            // Act
+            List<Tour.AlgorithmType> defaults = new ArrayList<>();
+            for (int i = 0; i < PortfolioOptimizer.EXPLORATION_INTERVAL; i++) {
+                defaults.add(portfolio.learnedDefault(100));
+            }
+
+            // Assert : une requête sur EXPLORATION_INTERVAL relance la course
+            assertEquals(PortfolioOptimizer.EXPLORATION_INTERVAL - 1,
+                    defaults.stream().filter(type -> type == Tour.AlgorithmType.CLARKE_WRIGHT).count());
+            assertTrue(defaults.contains(null));
+            assertNull(portfolio.learnedDefault(10), "no wins recorded for this size");
+        } finally {
+            portfolio.shutdown();
+        }
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,66 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteEvaluationTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void of_ShouldMatchMatrixDistanceAndUnloadAlongTheRoute() {
+        // Arrange
+        List<Delivery> ordered = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.58 + i * 0.01);
+            delivery.setLongitude(-7.60 + (i % 2) * 0.02);
+            delivery.setWeight(10.0 * (i + 1));
+            delivery.setVolume(0.1);
+            ordered.add(delivery);
+        }
+
+        // Act
+        RouteEvaluation evaluation = RouteEvaluation.of(warehouse, ordered);
+
+        // Assert
+        double expected = DistanceMatrix.of(warehouse, ordered).routeDistance(new int[]{1, 2, 3, 4});
+        assertEquals(expected, evaluation.getTotalDistance(), 1e-9);
+        assertEquals(5, evaluation.getLegs().size());
+        assertEquals(4, evaluation.getDeliveryCount());
+        assertEquals(100.0, evaluation.getTotalWeight(), 1e-9);
+
+        RouteEvaluation.Leg first = evaluation.getLegs().get(0);
+        assertNull(first.getFromDeliveryId());
+        assertEquals(100.0, first.getWeightOnBoard(), 1e-9);
+        assertEquals(70.0, evaluation.getLegs().get(2).getWeightOnBoard(), 1e-9);
+        assertEquals(expected, evaluation.getLegs().get(4).getCumulativeDistance(), 1e-9);
+        assertEquals(0.0, evaluation.getLegs().get(4).getWeightOnBoard(), 1e-9);
+    }
+
+    @Test
+    void of_WithoutDeliveries_ShouldReturnEmptyRoute() {
+        // Act
+        RouteEvaluation evaluation = RouteEvaluation.of(warehouse, new ArrayList<>());
+
+        // Assert
+        assertEquals(0.0, evaluation.getTotalDistance());
+        assertEquals(0, evaluation.getDeliveryCount());
+        assertTrue(evaluation.getLegs().isEmpty());
+    }
+}
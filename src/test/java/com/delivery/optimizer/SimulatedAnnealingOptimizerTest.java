@@ -0,0 +1,75 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedAnnealingOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateRoute_ShouldNeverBeWorseThanDelegate() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(200, 4L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        TourOptimizer delegate = new OrOptOptimizer(new TwoOptOptimizer(new NearestNeighborOptimizer()));
+
+        // Act
+        double before = matrix.routeDistance(delegate.calculateRoute(matrix, deliveries, null));
+        int[] route = new SimulatedAnnealingOptimizer(delegate, 200).calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(200, Arrays.stream(route).distinct().count());
+        assertTrue(Arrays.stream(route).allMatch(node -> node >= 1 && node <= 200));
+        assertTrue(matrix.routeDistance(route) <= before + 1e-9,
+                "Annealing " + matrix.routeDistance(route) + " km vs delegate " + before + " km");
+    }
+
+    @Test
+    void calculateTrips_WithDeadline_ShouldStopPromptly() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(1000, 8L);
+        SimulatedAnnealingOptimizer optimizer = new SimulatedAnnealingOptimizer(new NearestNeighborOptimizer(), 60_000);
+        Instant deadline = Instant.now().plusMillis(300);
+
+        // Act
+        TripPlan plan = optimizer.calculateTrips(warehouse, deliveries, null, deadline);
+        long overrunMillis = Instant.now().toEpochMilli() - deadline.toEpochMilli();
+
+        // Assert
+        assertEquals(1000, plan.getDeliveryCount());
+        assertTrue(overrunMillis < 100, "Deadline overrun of " + overrunMillis + " ms");
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,105 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepOptimizerTest {
+
+    private Warehouse warehouse;
+    private SweepOptimizer optimizer;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        optimizer = new SweepOptimizer();
+    }
+
+    @Test
+    void calculateTrips_ShouldRespectWeightVolumeAndDeliveryLimits() {
+        // Arrange : 5 kg et 0.05 m³ par livraison ; le volume limite à 10 livraisons par voyage
+        List<Delivery> deliveries = randomDeliveries(500, 21L);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(0.5);
+        vehicle.setMaxDeliveries(15);
+        vehicle.setRange(500.0);
+
+        // Act
+        TripPlan plan = optimizer.calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertEquals(500, plan.getTrips().stream()
+                .flatMap(trip -> trip.getDeliveries().stream())
+                .map(Delivery::getId)
+                .distinct()
+                .count());
+        assertTrue(plan.getTrips().stream().allMatch(trip -> trip.getWeight() <= 100.0
+                && trip.getVolume() <= 0.5 + 1e-9 && trip.getDeliveryCount() <= 15));
+        assertEquals(50, plan.getTripCount());
+    }
+
+    @Test
+    void calculateTrips_ShouldStayCloseToClarkeWright() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(2000, 22L);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.TRUCK);
+        vehicle.setMaxWeight(1000.0);
+        vehicle.setMaxVolume(80.0);
+        vehicle.setMaxDeliveries(200);
+        vehicle.setRange(500.0);
+
+        // Act
+        TripPlan sweep = optimizer.calculateTrips(warehouse, deliveries, vehicle);
+        TripPlan clarkeWright = new ClarkeWrightOptimizer().calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertEquals(2000, sweep.getDeliveryCount());
+        assertTrue(sweep.getTotalDistance() < 1.6 * clarkeWright.getTotalDistance(),
+                "sweep " + sweep.getTotalDistance() + " km vs Clarke-Wright " + clarkeWright.getTotalDistance() + " km");
+    }
+
+    @Test
+    void calculateRoute_WithoutVehicle_ShouldVisitEveryDeliveryOnce() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(1500, 23L);
+        DistanceMatrix matrix = DistanceMatrix.onDemand(warehouse, deliveries);
+
+        // Act
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+
+        // Assert
+        assertEquals(1500, route.length);
+        assertEquals(1500, Arrays.stream(route).distinct().count());
+        assertEquals(Tour.AlgorithmType.SWEEP, optimizer.getAlgorithmType());
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
@@ -0,0 +1,116 @@
+package com.delivery.optimizer;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TwoOptOptimizerTest {
+
+    private Warehouse warehouse;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+    }
+
+    @Test
+    void calculateRoute_ShouldShortenNearestNeighborRoute() {
+        for (long seed = 1; seed <= 3; seed++) {
+            // Arrange
+            List<Delivery> deliveries = randomDeliveries(300, seed);
+            DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+            NearestNeighborOptimizer nearestNeighbor = new NearestNeighborOptimizer();
+
+            // Act
+            double before = matrix.routeDistance(nearestNeighbor.calculateRoute(matrix, deliveries, null));
+            int[] route = new TwoOptOptimizer(nearestNeighbor).calculateRoute(matrix, deliveries, null);
+
+            // Assert
+            assertEquals(300, route.length);
+            assertEquals(300, Arrays.stream(route).distinct().count());
+            assertTrue(Arrays.stream(route).allMatch(node -> node >= 1 && node <= 300));
+            assertTrue(matrix.routeDistance(route) < before,
+                    "2-opt " + matrix.routeDistance(route) + " km vs Nearest Neighbor " + before + " km");
+        }
+    }
+
+    @Test
+    void calculateTrips_AfterClarkeWright_ShouldKeepEveryTripWithinCapacity() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(120, 7L);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setType(Vehicle.VehicleType.VAN);
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(8.0);
+        vehicle.setMaxDeliveries(50);
+        vehicle.setRange(500.0);
+
+        // Act
+        TripPlan plan = new TwoOptOptimizer(new ClarkeWrightOptimizer()).calculateTrips(warehouse, deliveries, vehicle);
+
+        // Assert
+        assertEquals(120, plan.getDeliveryCount());
+        for (Trip trip : plan.getTrips()) {
+            assertTrue(vehicle.isValidForDelivery(trip.getWeight(), trip.getVolume(), trip.getDeliveryCount()));
+        }
+    }
+
+    @Test
+    void calculateRoute_WithThousandDeliveries_ShouldCompleteQuickly() {
+        // Arrange
+        List<Delivery> deliveries = randomDeliveries(1000, 42L);
+        DistanceMatrix matrix = DistanceMatrix.of(warehouse, deliveries);
+        TwoOptOptimizer optimizer = new TwoOptOptimizer(new NearestNeighborOptimizer());
+
+        // Act
+        long start = System.nanoTime();
+        int[] route = optimizer.calculateRoute(matrix, deliveries, null);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(1000, Arrays.stream(route).distinct().count());
+        assertTrue(elapsedMillis < 1000, "2-opt took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void reverse_ShouldReverseShorterSideOfCycle() {
+        // Arrange
+        int[] tour = {0, 1, 2, 3, 4, 5};
+        int[] pos = {0, 1, 2, 3, 4, 5};
+
+        // Act : le segment 1..4 est plus long que son complément 5..0
+        TwoOptOptimizer.reverse(tour, pos, 1, 4);
+
+        // Assert : même cycle, parcouru dans l'autre sens
+        assertArrayEquals(new int[]{5, 1, 2, 3, 4, 0}, tour);
+        for (int i = 0; i < tour.length; i++) {
+            assertEquals(i, pos[tour[i]]);
+        }
+    }
+
+    private List<Delivery> randomDeliveries(int count, long seed) {
+        Random random = new Random(seed);
+        List<Delivery> deliveries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setId((long) i + 1);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            deliveries.add(delivery);
+        }
+        return deliveries;
+    }
+}
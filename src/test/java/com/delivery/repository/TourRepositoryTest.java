@@ -0,0 +1,160 @@
+package com.delivery.repository;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Nombre de requêtes SQL des chargements de tournées, mesuré par les statistiques Hibernate
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TourRepositoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 10, 17);
+    private static final int TOURS = 30;
+    private static final int DELIVERIES_PER_TOUR = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TourRepository tourRepository;
+
+    private Statistics statistics;
+    private Vehicle firstVehicle;
+    private Long firstTourId;
+
+    @BeforeEach
+    void setUp() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt Principal");
+        warehouse.setAddress("123 Rue Entrepôt, Casablanca");
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        warehouse.setOpeningHours("06:00-22:00");
+        entityManager.persist(warehouse);
+
+        Vehicle[] vehicles = new Vehicle[3];
+        for (int v = 0; v < vehicles.length; v++) {
+            vehicles[v] = new Vehicle();
+            vehicles[v].setLicensePlate("VAN-" + v);
+            vehicles[v].setType(Vehicle.VehicleType.VAN);
+            vehicles[v].setMaxWeight(1000.0);
+            vehicles[v].setMaxVolume(8.0);
+            vehicles[v].setMaxDeliveries(50);
+            vehicles[v].setRange(500.0);
+            entityManager.persist(vehicles[v]);
+        }
+        firstVehicle = vehicles[0];
+
+        for (int t = 0; t < TOURS; t++) {
+            Tour tour = new Tour();
+            tour.setDate(DATE);
+            tour.setVehicle(vehicles[t % vehicles.length]);
+            tour.setWarehouse(warehouse);
+            tour.setAlgorithmUsed(Tour.AlgorithmType.NEAREST_NEIGHBOR);
+            tour.setTotalDistance(10.0);
+            entityManager.persist(tour);
+            if (t == 0) {
+                firstTourId = tour.getId();
+            }
+
+            for (int d = 0; d < DELIVERIES_PER_TOUR; d++) {
+                Delivery delivery = new Delivery();
+                delivery.setAddress("Rue " + t + "-" + d);
+                delivery.setLatitude(33.55 + 0.001 * d);
+                delivery.setLongitude(-7.60 + 0.001 * t);
+                delivery.setWeight(5.0);
+                delivery.setVolume(0.05);
+                delivery.setTour(tour);
+                delivery.setOrder(d + 1);
+                entityManager.persist(delivery);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithDeliveries_ShouldLoadToursAndAssociationsInOneQuery() {
+        // Act
+        List<Tour> tours = tourRepository.findAllWithDeliveries();
+        int deliveries = touchAssociations(tours);
+
+        // Assert
+        assertEquals(TOURS, tours.size());
+        assertEquals(TOURS * DELIVERIES_PER_TOUR, deliveries);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByDateWithDeliveries_ShouldLoadToursAndAssociationsInOneQuery() {
+        // Act
+        List<Tour> tours = tourRepository.findByDateWithDeliveries(DATE, null);
+        touchAssociations(tours);
+
+        // Assert
+        assertEquals(TOURS, tours.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByVehicleIdWithDeliveries_ShouldLoadToursAndAssociationsInOneQuery() {
+        // Act
+        List<Tour> tours = tourRepository.findByVehicleIdWithDeliveries(firstVehicle.getId());
+        touchAssociations(tours);
+
+        // Assert
+        assertEquals(TOURS / 3, tours.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByIdWithDeliveries_ShouldAllowValidationWithoutFurtherQueries() {
+        // Act
+        Tour tour = tourRepository.findByIdWithDeliveries(firstTourId).orElseThrow();
+        tour.validate();
+
+        // Assert : livraisons triées par ordre de passage
+        assertEquals(DELIVERIES_PER_TOUR, tour.getDeliveries().size());
+        assertEquals(1, tour.getDeliveries().get(0).getOrder());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAll_ShouldIssueOneQueryPerLazyAssociation() {
+        // Act : chargement paresseux, comme avant les variantes avec JOIN FETCH
+        List<Tour> tours = tourRepository.findAll();
+        touchAssociations(tours);
+
+        // Assert : une requête pour les tournées, une par collection de livraisons, une par véhicule et entrepôt
+        assertTrue(statistics.getPrepareStatementCount() > TOURS,
+                "expected N+1 queries, got " + statistics.getPrepareStatementCount());
+    }
+
+    // Accès fait par TourMapper.toDTO et Tour.validate : véhicule, entrepôt et livraisons
+    private int touchAssociations(List<Tour> tours) {
+        int deliveries = 0;
+        for (Tour tour : tours) {
+            assertNotNull(tour.getVehicle().getLicensePlate());
+            assertNotNull(tour.getWarehouse().getName());
+            deliveries += tour.getDeliveries().size();
+        }
+        return deliveries;
+    }
+}
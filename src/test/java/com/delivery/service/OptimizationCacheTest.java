@@ -0,0 +1,126 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimizationCacheTest {
+
+    private AtomicLong now;
+    private OptimizationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        cache = new OptimizationCache(2, 1_000, now::get);
+    }
+
+    @Test
+    void get_AfterTtl_ShouldExpireEntry() {
+        // Arrange
+        cache.put(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 42L, new long[][]{{3, 1, 2}});
+
+        // Act
+        long[][] fresh = cache.get(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 42L);
+        now.addAndGet(1_001);
+        long[][] expired = cache.get(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 42L);
+
+        // Assert
+        assertArrayEquals(new long[]{3, 1, 2}, fresh[0]);
+        assertNull(expired);
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void put_BeyondMaxEntries_ShouldEvictLeastRecentlyUsed() {
+        // Arrange
+        cache.put(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 1L, new long[][]{{1}});
+        cache.put(2L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 2L, new long[][]{{2}});
+        cache.get(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 1L);
+
+        // Act
+        cache.put(3L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 3L, new long[][]{{3}});
+
+        // Assert
+        assertNotNull(cache.get(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 1L));
+        assertNull(cache.get(2L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 2L));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void invalidate_ShouldRemoveEveryAlgorithmOfTour() {
+        // Arrange
+        cache.put(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, 1L, new long[][]{{1}});
+        cache.put(1L, Tour.AlgorithmType.CLARKE_WRIGHT, 1L, new long[][]{{1}});
+
+        // Act
+        cache.invalidate(1L);
+
+        // Assert
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void fingerprint_ShouldIgnoreOrderButNotCoordinates() {
+        // Arrange
+        Warehouse warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        Delivery first = delivery(1L, 33.58);
+        Delivery second = delivery(2L, 33.59);
+
+        // Act
+        long forward = OptimizationCache.fingerprint(warehouse, null, List.of(first, second));
+        long backward = OptimizationCache.fingerprint(warehouse, null, List.of(second, first));
+        second.setLatitude(33.60);
+        long moved = OptimizationCache.fingerprint(warehouse, null, new ArrayList<>(List.of(first, second)));
+
+        // Assert
+        assertEquals(forward, backward);
+        assertNotEquals(forward, moved);
+    }
+
+    @Test
+    void fingerprint_WithNullableFieldsUnset_ShouldNotThrow() {
+        // Arrange : véhicule sans rayon d'action ni limite de livraisons, livraison sans identifiant
+        Warehouse warehouse = new Warehouse();
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        Vehicle vehicle = new Vehicle();
+        vehicle.setMaxWeight(100.0);
+        vehicle.setMaxVolume(1.0);
+        Delivery delivery = delivery(null, 33.58);
+
+        // Act
+        long unset = OptimizationCache.fingerprint(warehouse, vehicle, List.of(delivery));
+        long again = OptimizationCache.fingerprint(warehouse, vehicle, List.of(delivery));
+        vehicle.setRange(0.0);
+        long zeroRange = OptimizationCache.fingerprint(warehouse, vehicle, List.of(delivery));
+
+        // Assert
+        assertEquals(unset, again);
+        assertNotEquals(unset, zeroRange);
+    }
+
+    private Delivery delivery(Long id, double latitude) {
+        Delivery delivery = new Delivery();
+        delivery.setId(id);
+        delivery.setLatitude(latitude);
+        delivery.setLongitude(-7.6);
+        delivery.setWeight(5.0);
+        delivery.setVolume(0.05);
+        return delivery;
+    }
+}
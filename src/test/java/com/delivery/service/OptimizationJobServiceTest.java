@@ -0,0 +1,122 @@
+package com.delivery.service;
+
+import com.delivery.dto.BulkOptimizationDTO;
+import com.delivery.entity.Tour;
+import com.delivery.optimizer.TripPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimizationJobServiceTest {
+
+    @Mock
+    private TourService tourService;
+
+    private OptimizationJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new OptimizationJobService(tourService, 1, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldSolveThenPersistAndExposeResult() throws InterruptedException {
+        // Arrange
+        Tour tour = new Tour();
+        tour.setId(1L);
+        OptimizationInput input = new OptimizationInput(1L, Tour.AlgorithmType.CLARKE_WRIGHT, null, null, new ArrayList<>());
+        TripPlan plan = new TripPlan(new ArrayList<>());
+        when(tourService.prepareOptimization(1L, Tour.AlgorithmType.CLARKE_WRIGHT)).thenReturn(input);
+        when(tourService.solve(eq(input), any())).thenReturn(plan);
+        when(tourService.applyOptimization(input, plan)).thenReturn(tour);
+
+        // Act
+        OptimizationJob job = jobService.submit(1L, Tour.AlgorithmType.CLARKE_WRIGHT, 500L);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(OptimizationJob.Status.SUCCEEDED, job.getStatus());
+        assertSame(tour, jobService.getJob(job.getId()).orElseThrow().getResult());
+        InOrder inOrder = inOrder(tourService);
+        inOrder.verify(tourService).prepareOptimization(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+        inOrder.verify(tourService).solve(eq(input), any());
+        inOrder.verify(tourService).applyOptimization(input, plan);
+    }
+
+    @Test
+    void submit_WhenTourNotFound_ShouldMarkJobFailed() throws InterruptedException {
+        // Arrange
+        when(tourService.prepareOptimization(99L, Tour.AlgorithmType.NEAREST_NEIGHBOR))
+                .thenThrow(new RuntimeException("Tour not found with id: 99"));
+
+        // Act
+        OptimizationJob job = jobService.submit(99L, Tour.AlgorithmType.NEAREST_NEIGHBOR, null);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(OptimizationJob.Status.FAILED, job.getStatus());
+        assertTrue(job.getError().contains("Tour not found"));
+        verify(tourService, never()).applyOptimization(any(), any());
+    }
+
+    @Test
+    void optimizeToursForDate_ShouldSolveEachTourAndReportFailures() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        Tour valid = new Tour();
+        valid.setId(1L);
+        Tour empty = new Tour();
+        empty.setId(2L);
+        OptimizationInput input = new OptimizationInput(1L, Tour.AlgorithmType.CLARKE_WRIGHT, null, null, new ArrayList<>());
+        TripPlan plan = new TripPlan(new ArrayList<>());
+        when(tourService.getToursForOptimization(date, null)).thenReturn(List.of(valid, empty));
+        when(tourService.toOptimizationInput(valid, Tour.AlgorithmType.CLARKE_WRIGHT)).thenReturn(input);
+        when(tourService.toOptimizationInput(empty, Tour.AlgorithmType.CLARKE_WRIGHT))
+                .thenThrow(new RuntimeException("No deliveries found for tour id: 2"));
+        when(tourService.solve(input, null)).thenReturn(plan);
+
+        // Act
+        BulkOptimizationDTO summary = jobService.optimizeToursForDate(date, null, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        assertEquals(2, summary.getTourCount());
+        assertEquals(1, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        assertTrue(summary.getTours().get(0).isSuccess());
+        assertFalse(summary.getTours().get(1).isSuccess());
+        assertTrue(summary.getTours().get(1).getError().contains("No deliveries"));
+        verify(tourService).applyOptimizations(List.of(input), List.of(plan));
+        verify(tourService, never()).applyOptimization(any(), any());
+    }
+
+    @Test
+    void getJob_WithUnknownId_ShouldReturnEmpty() {
+        assertTrue(jobService.getJob("unknown").isEmpty());
+    }
+
+    private void awaitFinished(OptimizationJob job) throws InterruptedException {
+        long limit = System.currentTimeMillis() + 5_000;
+        while (!job.isFinished() && System.currentTimeMillis() < limit) {
+            Thread.sleep(10);
+        }
+    }
+}
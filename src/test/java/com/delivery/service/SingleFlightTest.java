@@ -0,0 +1,80 @@
+package com.delivery.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_WithConcurrentCallersOnSameKey_ShouldComputeOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            Future<Integer> leader = pool.submit(() -> singleFlight.execute("tour-1", () -> {
+                computations.incrementAndGet();
+                started.countDown();
+                awaitQuietly(release);
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<Integer> follower1 = pool.submit(() -> singleFlight.execute("tour-1", computations::incrementAndGet));
+            Future<Integer> follower2 = pool.submit(() -> singleFlight.execute("tour-1", computations::incrementAndGet));
+            waitForCoalesced(singleFlight, 2);
+            release.countDown();
+
+            // Assert
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            assertEquals(42, follower1.get(5, TimeUnit.SECONDS));
+            assertEquals(42, follower2.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computations.get());
+            assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WhenComputationFails_ShouldPropagateAndAllowRetry() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> singleFlight.execute("tour-1", () -> {
+                    throw new RuntimeException("Tour not found with id: 1");
+                }));
+        assertEquals("Tour not found with id: 1", exception.getMessage());
+        assertEquals(7, singleFlight.execute("tour-1", () -> 7));
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    private static void waitForCoalesced(SingleFlight<?, ?> singleFlight, long expected) throws InterruptedException {
+        long limit = System.currentTimeMillis() + 5_000;
+        while (singleFlight.getCoalescedCount() < expected && System.currentTimeMillis() < limit) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
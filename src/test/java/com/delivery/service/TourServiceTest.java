@@ -1,7 +1,13 @@
 package com.delivery.service;
 
 import com.delivery.entity.*;
+import com.delivery.optimizer.DistanceMatrix;
+import com.delivery.optimizer.OptimizerRegistry;
+import com.delivery.optimizer.PortfolioOptimizer;
+import com.delivery.optimizer.RouteEvaluation;
 import com.delivery.optimizer.TourOptimizer;
+import com.delivery.optimizer.Trip;
+import com.delivery.optimizer.TripPlan;
 import com.delivery.repository.TourRepository;
 import com.delivery.repository.DeliveryRepository;
 import com.delivery.repository.VehicleRepository;
@@ -12,10 +18,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,7 +53,20 @@ class TourServiceTest {
     @Mock
     private TourOptimizer clarkeWrightOptimizer;
 
+    @Mock
+    private TourOptimizer nearestNeighborTwoOptOptimizer;
+
+    @Mock
+    private TourOptimizer simulatedAnnealingOptimizer;
+
+    @Mock
+    private TourOptimizer exactOptimizer;
+
+    @Mock
+    private PortfolioOptimizer portfolioOptimizer;
 
+
+    private OptimizerRegistry optimizerRegistry;
     private TourService tourService;
 
     private Tour tour;
@@ -55,14 +77,24 @@ class TourServiceTest {
 
     @BeforeEach
     void setUp() {
+        Map<Tour.AlgorithmType, TourOptimizer> optimizers = new EnumMap<>(Tour.AlgorithmType.class);
+        optimizers.put(Tour.AlgorithmType.NEAREST_NEIGHBOR, nearestNeighborOptimizer);
+        optimizers.put(Tour.AlgorithmType.CLARKE_WRIGHT, clarkeWrightOptimizer);
+        optimizers.put(Tour.AlgorithmType.NEAREST_NEIGHBOR_2OPT, nearestNeighborTwoOptOptimizer);
+        optimizers.put(Tour.AlgorithmType.SIMULATED_ANNEALING, simulatedAnnealingOptimizer);
+        optimizers.put(Tour.AlgorithmType.EXACT, exactOptimizer);
+        optimizers.put(Tour.AlgorithmType.AUTO, portfolioOptimizer);
+        this.optimizerRegistry = OptimizerRegistry.of(optimizers);
         this.tourService = new TourService(
                 tourRepository,
                 deliveryRepository,
                 vehicleRepository,
                 warehouseRepository,
-                nearestNeighborOptimizer,
-                clarkeWrightOptimizer
+                optimizerRegistry,
+                new OptimizationCache()
         );
+        // Les tests des heuristiques ne doivent pas basculer vers l'algorithme exact
+        optimizerRegistry.setExactMaxDeliveries(0);
 
         // Setup Vehicle
         vehicle = new Vehicle();
@@ -115,7 +147,7 @@ class TourServiceTest {
     void getAllTours_ShouldReturnAllTours() {
         // Arrange
         List<Tour> expectedTours = Arrays.asList(tour);
-        when(tourRepository.findAll()).thenReturn(expectedTours);
+        when(tourRepository.findAllWithDeliveries()).thenReturn(expectedTours);
 
         // Act
         List<Tour> result = tourService.getAllTours();
@@ -123,7 +155,7 @@ class TourServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(tourRepository, times(1)).findAll();
+        verify(tourRepository, times(1)).findAllWithDeliveries();
     }
 
     @Test
@@ -197,40 +229,98 @@ class TourServiceTest {
     void optimizeTour_WithNearestNeighbor_ShouldOptimizeTour() {
         // Arrange
         List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
         when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
-        when(nearestNeighborOptimizer.calculateOptimalTour(
+        when(deliveryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(delivery1, delivery2));
+        when(nearestNeighborOptimizer.calculateTrips(
                 eq(warehouse),
                 any(List.class),
-                eq(vehicle)
-        )).thenReturn(optimizedDeliveries);
-        when(nearestNeighborOptimizer.calculateTotalDistance(eq(warehouse), any(List.class))).thenReturn(45.0);
+                eq(vehicle),
+                isNull()
+        )).thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 45.0, 15.0, 1.5))));
         when(tourRepository.save(any(Tour.class))).thenReturn(tour);
 
         // Act
         Tour result = tourService.optimizeTour(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
 
-        // Assert
+        // Assert : les livraisons sont chargées en une requête et modifiées en place
         assertNotNull(result);
-        verify(nearestNeighborOptimizer, times(1)).calculateOptimalTour(
+        assertEquals(45.0, tour.getTotalDistance());
+        assertEquals(tour, delivery1.getTour());
+        verify(deliveryRepository, never()).save(any(Delivery.class));
+        verify(nearestNeighborOptimizer, times(1)).calculateTrips(
                 eq(warehouse),
                 any(List.class),
-                eq(vehicle)
+                eq(vehicle),
+                isNull()
         );
         verify(tourRepository, times(1)).save(tour);
     }
 
+    @Test
+    void applyOptimization_WhenDeliveriesChangedDuringSolve_ShouldRejectPlan() {
+        // Arrange : une livraison a été ajoutée après la lecture des données
+        OptimizationInput input = new OptimizationInput(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, warehouse, vehicle,
+                List.of(delivery1));
+        TripPlan plan = new TripPlan(List.of(Trip.of(warehouse, List.of(delivery1))));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> tourService.applyOptimization(input, plan));
+        verify(deliveryRepository, never()).findAllById(any());
+        verify(tourRepository, never()).save(any(Tour.class));
+        assertEquals(50.0, tour.getTotalDistance());
+    }
+
+    @Test
+    void applyOptimization_WhenDeliveryDeletedDuringSolve_ShouldNotWriteDetachedCopy() {
+        // Arrange : la seconde livraison n'existe plus en base
+        OptimizationInput input = new OptimizationInput(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR, warehouse, vehicle,
+                List.of(delivery1, delivery2));
+        TripPlan plan = new TripPlan(List.of(Trip.of(warehouse, List.of(delivery1, delivery2))));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(delivery1));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> tourService.applyOptimization(input, plan));
+        verify(deliveryRepository, never()).save(any(Delivery.class));
+        verify(tourRepository, never()).save(any(Tour.class));
+    }
+
+    @Test
+    void optimizeTour_WithAuto_ShouldRecordWinningAlgorithm() {
+        // Arrange
+        List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(portfolioOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle), isNull()))
+                .thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 38.0, 15.0, 1.5)),
+                        Tour.AlgorithmType.CLARKE_WRIGHT));
+        when(tourRepository.save(any(Tour.class))).thenReturn(tour);
+
+        // Act
+        tourService.optimizeTour(1L, Tour.AlgorithmType.AUTO);
+
+        // Assert
+        assertEquals(Tour.AlgorithmType.CLARKE_WRIGHT, tour.getAlgorithmUsed());
+        assertEquals(38.0, tour.getTotalDistance());
+    }
+
     @Test
     void optimizeTour_WithClarkeWright_ShouldOptimizeTour() {
         // Arrange
         tour.setAlgorithmUsed(Tour.AlgorithmType.CLARKE_WRIGHT);
         List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
         when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
-        when(clarkeWrightOptimizer.calculateOptimalTour(
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(clarkeWrightOptimizer.calculateTrips(
                 eq(warehouse),
                 any(List.class),
-                eq(vehicle)
-        )).thenReturn(optimizedDeliveries);
-        when(clarkeWrightOptimizer.calculateTotalDistance(eq(warehouse), any(List.class))).thenReturn(40.0);
+                eq(vehicle),
+                isNull()
+        )).thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 40.0, 15.0, 1.5))));
         when(tourRepository.save(any(Tour.class))).thenReturn(tour);
 
         // Act
@@ -238,21 +328,246 @@ class TourServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(clarkeWrightOptimizer, times(1)).calculateOptimalTour(
+        verify(clarkeWrightOptimizer, times(1)).calculateTrips(
                 eq(warehouse),
                 any(List.class),
-                eq(vehicle)
+                eq(vehicle),
+                isNull()
         );
         verify(tourRepository, times(1)).save(tour);
     }
 
+    @Test
+    void optimizeTour_ShouldReturnTourReadAfterCommit() {
+        // Arrange : la seconde lecture renvoie l'état validé, pas l'entité de la transaction d'écriture
+        Tour reloaded = new Tour();
+        reloaded.setId(1L);
+        List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery2, delivery1));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour), Optional.of(reloaded));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle), isNull()))
+                .thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 40.0, 15.0, 1.5))));
+        when(tourRepository.save(any(Tour.class))).thenReturn(tour);
+
+        // Act
+        Tour result = tourService.optimizeTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        assertSame(reloaded, result);
+        verify(tourRepository, times(2)).findByIdWithDeliveries(1L);
+    }
+
+    @Test
+    void optimizeTour_WithDeadline_ShouldPassDeadlineToOptimizer() {
+        // Arrange
+        Instant deadline = Instant.now().plusMillis(500);
+        List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery2, delivery1));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(simulatedAnnealingOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle), eq(deadline)))
+                .thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 38.0, 15.0, 1.5))));
+        when(tourRepository.save(any(Tour.class))).thenReturn(tour);
+
+        // Act
+        tourService.optimizeTour(1L, Tour.AlgorithmType.SIMULATED_ANNEALING, deadline);
+
+        // Assert
+        assertEquals(38.0, tour.getTotalDistance());
+        assertEquals(Tour.AlgorithmType.SIMULATED_ANNEALING, tour.getAlgorithmUsed());
+    }
+
+    @Test
+    void optimizeTour_WithSmallAutoTour_ShouldUseExactOptimizer() {
+        // Arrange
+        optimizerRegistry.setExactMaxDeliveries(Vehicle.Constraints.BIKE_MAX_DELIVERIES);
+        List<Delivery> optimizedDeliveries = new ArrayList<>(Arrays.asList(delivery1, delivery2));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(exactOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle), isNull()))
+                .thenReturn(new TripPlan(List.of(new Trip(optimizedDeliveries, 42.0, 15.0, 1.5))));
+        when(tourRepository.save(any(Tour.class))).thenReturn(tour);
+
+        // Act
+        tourService.optimizeTour(1L, Tour.AlgorithmType.AUTO);
+
+        // Assert
+        assertEquals(Tour.AlgorithmType.EXACT, tour.getAlgorithmUsed());
+        verify(portfolioOptimizer, never()).calculateTrips(any(), any(), any(), any());
+    }
+
+    @Test
+    void optimizeTour_WithSeveralTrips_ShouldSaveSiblingTours() {
+        // Arrange
+        Trip firstTrip = new Trip(new ArrayList<>(List.of(delivery1)), 20.0, 5.0, 0.5);
+        Trip secondTrip = new Trip(new ArrayList<>(List.of(delivery2)), 25.0, 10.0, 1.0);
+        Tour sibling = new Tour();
+        sibling.setId(2L);
+
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findAllById(any())).thenReturn(List.of(delivery1, delivery2));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle), isNull()))
+                .thenReturn(new TripPlan(List.of(firstTrip, secondTrip)));
+        when(tourRepository.save(any(Tour.class))).thenAnswer(invocation ->
+                invocation.getArgument(0) == tour ? tour : sibling);
+
+        // Act
+        Tour result = tourService.optimizeTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        assertEquals(tour, result);
+        assertEquals(List.of(delivery1), tour.getDeliveries());
+        assertEquals(20.0, tour.getTotalDistance());
+        assertEquals(tour, delivery1.getTour());
+        assertEquals(sibling, delivery2.getTour());
+        verify(tourRepository, times(2)).save(any(Tour.class));
+    }
+
+    @Test
+    void getTotalDistance_WithSameAlgorithm_ShouldEvaluateStoredRouteWithoutOptimizing() {
+        // Arrange
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        double expected = RouteEvaluation.of(warehouse, tour.getDeliveries()).getTotalDistance();
+
+        // Act
+        Double result = tourService.getTotalDistance(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+        // Assert
+        assertEquals(expected, result, 1e-9);
+        verify(nearestNeighborOptimizer, never()).calculateTrips(any(), any(), any(), any());
+    }
+
+    @Test
+    void getTotalDistance_WithSameAlgorithmButUnorderedStop_ShouldEvaluateOptimizedTrips() {
+        // Arrange : la seconde livraison n'a pas de rang, l'ordre enregistré n'est pas celui de l'algorithme
+        delivery1.setOrder(1);
+        List<Delivery> optimizedRoute = new ArrayList<>(Arrays.asList(delivery2, delivery1));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(nearestNeighborOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(new TripPlan(List.of(Trip.of(warehouse, optimizedRoute))));
+
+        // Act
+        Double result = tourService.getTotalDistance(1L, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+
+        // Assert
+        assertEquals(RouteEvaluation.of(warehouse, optimizedRoute).getTotalDistance(), result, 1e-9);
+        verify(nearestNeighborOptimizer, times(1)).calculateTrips(eq(warehouse), any(List.class), eq(vehicle));
+    }
+
+    @Test
+    void getTotalDistance_WithOtherAlgorithm_ShouldOptimizeOnce() {
+        // Arrange
+        List<Delivery> optimizedRoute = new ArrayList<>(Arrays.asList(delivery2, delivery1));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(new TripPlan(List.of(Trip.of(warehouse, optimizedRoute))));
+
+        // Act
+        Double result = tourService.getTotalDistance(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        assertEquals(RouteEvaluation.of(warehouse, optimizedRoute).getTotalDistance(), result, 1e-9);
+        verify(clarkeWrightOptimizer, times(1)).calculateTrips(eq(warehouse), any(List.class), eq(vehicle));
+        verify(clarkeWrightOptimizer, never()).calculateTotalDistance(any(), any());
+    }
+
+    @Test
+    void getOptimizedTour_WithSeveralTrips_ShouldReturnEveryDelivery() {
+        // Arrange : le véhicule impose deux voyages
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(new TripPlan(List.of(Trip.of(warehouse, List.of(delivery2)), Trip.of(warehouse, List.of(delivery1)))));
+
+        // Act
+        List<Delivery> route = tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+        Double distance = tourService.getTotalDistance(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert : chaque trajet repart de l'entrepôt
+        assertEquals(List.of(delivery2, delivery1), route);
+        assertEquals(2, delivery1.getOrder());
+        assertEquals(RouteEvaluation.of(warehouse, List.of(delivery2)).getTotalDistance()
+                + RouteEvaluation.of(warehouse, List.of(delivery1)).getTotalDistance(), distance, 1e-9);
+        verify(clarkeWrightOptimizer, times(1)).calculateTrips(any(), any(), any());
+    }
+
+    @Test
+    void getOptimizedTour_WhenRouteMissesDeliveries_ShouldFail() {
+        // Arrange
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(new TripPlan(List.of(Trip.of(warehouse, List.of(delivery1)))));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT));
+    }
+
+    @Test
+    void getOptimizedTour_CalledTwice_ShouldServeSecondCallFromCache() {
+        // Arrange
+        List<Delivery> optimizedRoute = new ArrayList<>(Arrays.asList(delivery2, delivery1));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenReturn(new TripPlan(List.of(Trip.of(warehouse, optimizedRoute))));
+
+        // Act
+        tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+        List<Delivery> result = tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        assertEquals(List.of(delivery2, delivery1), result);
+        verify(clarkeWrightOptimizer, times(1)).calculateTrips(any(), any(), any());
+        assertEquals(1, tourService.getOptimizationCacheStats().getHits());
+        assertEquals(1, tourService.getOptimizationCacheStats().getMisses());
+    }
+
+    @Test
+    void getOptimizedTour_AfterRemovingDelivery_ShouldRecompute() {
+        // Arrange
+        delivery2.setTour(tour);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(2L)).thenReturn(Optional.of(delivery2));
+        when(clarkeWrightOptimizer.calculateTrips(eq(warehouse), any(List.class), eq(vehicle)))
+                .thenAnswer(invocation -> new TripPlan(List.of(
+                        Trip.of(warehouse, new ArrayList<>(invocation.getArgument(1, List.class))))));
+        tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Act
+        tourService.removeDeliveryFromTour(1L, 2L);
+        tourService.getOptimizedTour(1L, Tour.AlgorithmType.CLARKE_WRIGHT);
+
+        // Assert
+        verify(clarkeWrightOptimizer, times(2)).calculateTrips(any(), any(), any());
+        assertEquals(0, tourService.getOptimizationCacheStats().getHits());
+    }
+
+    @Test
+    void evaluateTour_ShouldReturnLegsOfStoredOrder() {
+        // Arrange
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+
+        // Act
+        RouteEvaluation result = tourService.evaluateTour(1L);
+
+        // Assert
+        assertEquals(3, result.getLegs().size());
+        assertEquals(2, result.getDeliveryCount());
+        assertEquals(15.0, result.getTotalWeight(), 1e-9);
+        assertEquals(1L, result.getLegs().get(0).getToDeliveryId());
+        assertNull(result.getLegs().get(2).getToDeliveryId());
+    }
+
     @Test
     void optimizeTour_WithVehicleCapacityExceeded_ShouldThrowException() {
         // Arrange
         delivery1.setWeight(2000.0); // Exceeds vehicle capacity
         tour.setDeliveries(new ArrayList<>(Arrays.asList(delivery1, delivery2)));
 
-        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -267,7 +582,7 @@ class TourServiceTest {
     void optimizeTour_WithNoDeliveries_ShouldThrowException() {
         // Arrange
         tour.setDeliveries(new ArrayList<>()); // Empty deliveries
-        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(tourRepository.findByIdWithDeliveries(1L)).thenReturn(Optional.of(tour));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
@@ -287,9 +602,137 @@ class TourServiceTest {
         // Act
         tourService.addDeliveryToTour(1L, 3L);
 
-        // Assert
+        // Assert : l'ordre enregistré n'est plus celui de l'algorithme
         verify(deliveryRepository, times(1)).save(delivery1);
         assertEquals(tour, delivery1.getTour());
+        assertNull(tour.getAlgorithmUsed());
+        verify(tourRepository).save(tour);
+    }
+
+    @Test
+    void insertDeliveryIntoTour_ShouldInsertAtCheapestPositionAndShiftLaterStops() {
+        // Arrange : la nouvelle livraison est entre les deux arrêts existants
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        Delivery late = new Delivery();
+        late.setId(3L);
+        late.setLatitude(33.5746);
+        late.setLongitude(-7.5913);
+        late.setWeight(1.0);
+        late.setVolume(0.1);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(late));
+        double expectedDelta = DistanceMatrix.haversine(33.5741, -7.5908, 33.5746, -7.5913)
+                + DistanceMatrix.haversine(33.5746, -7.5913, 33.5751, -7.5918)
+                - DistanceMatrix.haversine(33.5741, -7.5908, 33.5751, -7.5918);
+
+        // Act
+        tourService.insertDeliveryIntoTour(1L, 3L);
+
+        // Assert
+        verify(deliveryRepository).shiftOrders(1L, 2);
+        verify(deliveryRepository).save(late);
+        verify(tourRepository).save(tour);
+        assertEquals(tour, late.getTour());
+        assertEquals(2, late.getOrder());
+        assertEquals(50.0 + expectedDelta, tour.getTotalDistance(), 1e-9);
+    }
+
+    @Test
+    void insertDeliveryIntoTour_WhenCheapestAtEnd_ShouldAppendWithoutShifting() {
+        // Arrange : au-delà du dernier arrêt, en s'éloignant de l'entrepôt
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        Delivery late = new Delivery();
+        late.setId(3L);
+        late.setLatitude(33.5800);
+        late.setLongitude(-7.5990);
+        late.setWeight(1.0);
+        late.setVolume(0.1);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(late));
+
+        // Act
+        tourService.insertDeliveryIntoTour(1L, 3L);
+
+        // Assert
+        verify(deliveryRepository, never()).shiftOrders(any(), any());
+        assertEquals(3, late.getOrder());
+        assertTrue(tour.getTotalDistance() > 50.0);
+    }
+
+    @Test
+    void insertDeliveryIntoTour_WhenMovedFromAnotherTour_ShouldRepairPreviousTour() {
+        // Arrange : la livraison est le seul arrêt ordonné d'une autre tournée
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        Tour otherTour = new Tour();
+        otherTour.setId(2L);
+        otherTour.setWarehouse(warehouse);
+        otherTour.setTotalDistance(10.0);
+        Delivery moved = new Delivery();
+        moved.setId(3L);
+        moved.setLatitude(33.5746);
+        moved.setLongitude(-7.5913);
+        moved.setWeight(1.0);
+        moved.setVolume(0.1);
+        moved.setTour(otherTour);
+        moved.setOrder(1);
+        otherTour.setDeliveries(new ArrayList<>(List.of(moved)));
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(moved));
+
+        // Act
+        tourService.insertDeliveryIntoTour(1L, 3L);
+
+        // Assert : l'aller-retour vers l'arrêt déplacé est retiré de l'ancienne tournée
+        double roundTrip = 2 * DistanceMatrix.haversine(33.5731, -7.5898, 33.5746, -7.5913);
+        assertEquals(Math.max(0.0, 10.0 - roundTrip), otherTour.getTotalDistance(), 1e-9);
+        assertTrue(otherTour.getDeliveries().isEmpty());
+        verify(deliveryRepository).compactOrders(2L, 1);
+        verify(tourRepository).save(otherTour);
+        assertEquals(tour, moved.getTour());
+        assertNull(tour.getAlgorithmUsed());
+    }
+
+    @Test
+    void insertDeliveryIntoTour_WhenVehicleCapacityExceeded_ShouldReject() {
+        // Arrange
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        vehicle.setMaxDeliveries(2);
+        Delivery late = new Delivery();
+        late.setId(3L);
+        late.setLatitude(33.5746);
+        late.setLongitude(-7.5913);
+        late.setWeight(1.0);
+        late.setVolume(0.1);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(late));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> tourService.insertDeliveryIntoTour(1L, 3L));
+        verify(deliveryRepository, never()).save(any(Delivery.class));
+        assertEquals(50.0, tour.getTotalDistance());
+    }
+
+    @Test
+    void insertDeliveryIntoTour_WithUnorderedStop_ShouldReject() {
+        // Arrange : la seconde livraison n'a pas de rang
+        delivery1.setOrder(1);
+        Delivery late = new Delivery();
+        late.setId(3L);
+        late.setLatitude(33.5746);
+        late.setLongitude(-7.5913);
+        late.setWeight(1.0);
+        late.setVolume(0.1);
+        when(tourRepository.findById(1L)).thenReturn(Optional.of(tour));
+        when(deliveryRepository.findById(3L)).thenReturn(Optional.of(late));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> tourService.insertDeliveryIntoTour(1L, 3L));
+        verify(deliveryRepository, never()).shiftOrders(any(), any());
+        verify(deliveryRepository, never()).save(any(Delivery.class));
     }
 
     @Test
@@ -307,19 +750,42 @@ class TourServiceTest {
         verify(deliveryRepository, times(1)).save(delivery1);
     }
 
+    @Test
+    void removeDeliveryFromTour_WithOrderedStop_ShouldStitchNeighborsAndCompactOrders() {
+        // Arrange : entrepôt -> 1 -> 2 -> entrepôt, retrait du premier arrêt
+        delivery1.setOrder(1);
+        delivery2.setOrder(2);
+        delivery1.setTour(tour);
+        delivery2.setTour(tour);
+        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery1));
+        double expectedDelta = DistanceMatrix.haversine(33.5731, -7.5898, 33.5751, -7.5918)
+                - DistanceMatrix.haversine(33.5731, -7.5898, 33.5741, -7.5908)
+                - DistanceMatrix.haversine(33.5741, -7.5908, 33.5751, -7.5918);
+
+        // Act
+        tourService.removeDeliveryFromTour(1L, 1L);
+
+        // Assert
+        verify(deliveryRepository).compactOrders(1L, 1);
+        verify(tourRepository).save(tour);
+        assertEquals(50.0 + expectedDelta, tour.getTotalDistance(), 1e-9);
+        assertEquals(List.of(delivery2), tour.getDeliveries());
+        assertNull(delivery1.getOrder());
+    }
+
     @Test
     void getToursByDate_ShouldReturnToursForDate() {
         // Arrange
         LocalDate date = LocalDate.now();
         List<Tour> expectedTours = Arrays.asList(tour);
-        when(tourRepository.findByDate(date)).thenReturn(expectedTours);
+        when(tourRepository.findByDateWithDeliveries(date, null)).thenReturn(expectedTours);
 
         // Act
         List<Tour> result = tourService.getToursByDate(date);
 
         // Assert
         assertEquals(1, result.size());
-        verify(tourRepository, times(1)).findByDate(date);
+        verify(tourRepository, times(1)).findByDateWithDeliveries(date, null);
     }
 
     @Test
@@ -337,12 +803,10 @@ class TourServiceTest {
         // Act
         tourService.deleteTour(1L);
 
-        // Assert
-        assertNull(delivery1.getTour());
-        assertNull(delivery1.getOrder());
-        assertNull(delivery2.getTour());
-        assertNull(delivery2.getOrder());
-        verify(deliveryRepository, times(2)).save(any(Delivery.class));
+        // Assert : une seule requête groupée, sans sauvegarde livraison par livraison
+        verify(deliveryRepository, times(1)).unassignTour(1L);
+        verify(deliveryRepository, never()).save(any(Delivery.class));
+        assertTrue(tour.getDeliveries().isEmpty());
         verify(tourRepository, times(1)).delete(tour);
     }
 
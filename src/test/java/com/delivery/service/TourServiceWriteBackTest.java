@@ -0,0 +1,142 @@
+package com.delivery.service;
+
+import com.delivery.entity.Delivery;
+import com.delivery.entity.Tour;
+import com.delivery.entity.Vehicle;
+import com.delivery.entity.Warehouse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Allers-retours SQL de l'écriture d'un ordre de passage, mesurés par les statistiques Hibernate
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TourServiceWriteBackTest {
+
+    private static final int DELIVERIES = 100;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TourService tourService;
+
+    private Statistics statistics;
+    private Long tourId;
+
+    @BeforeEach
+    void setUp() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Entrepôt Principal");
+        warehouse.setAddress("123 Rue Entrepôt, Casablanca");
+        warehouse.setLatitude(33.5731);
+        warehouse.setLongitude(-7.5898);
+        warehouse.setOpeningHours("06:00-22:00");
+        entityManager.persist(warehouse);
+
+        Vehicle vehicle = new Vehicle();
+        vehicle.setLicensePlate("TRUCK-1");
+        vehicle.setType(Vehicle.VehicleType.TRUCK);
+        vehicle.setMaxWeight(5000.0);
+        vehicle.setMaxVolume(80.0);
+        vehicle.setMaxDeliveries(200);
+        vehicle.setRange(500.0);
+        entityManager.persist(vehicle);
+
+        Tour tour = new Tour();
+        tour.setDate(LocalDate.of(2026, 10, 17));
+        tour.setVehicle(vehicle);
+        tour.setWarehouse(warehouse);
+        tour.setAlgorithmUsed(Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        tour.setTotalDistance(0.0);
+        entityManager.persist(tour);
+        tourId = tour.getId();
+
+        Random random = new Random(7L);
+        for (int i = 0; i < DELIVERIES; i++) {
+            Delivery delivery = new Delivery();
+            delivery.setAddress("Rue " + i);
+            delivery.setLatitude(33.45 + random.nextDouble() * 0.25);
+            delivery.setLongitude(-7.75 + random.nextDouble() * 0.35);
+            delivery.setWeight(5.0);
+            delivery.setVolume(0.05);
+            delivery.setTour(tour);
+            entityManager.persist(delivery);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void optimizeTour_ShouldWriteRouteOrderInAHandfulOfStatements() {
+        // Act
+        tourService.optimizeTour(tourId, Tour.AlgorithmType.NEAREST_NEIGHBOR);
+        entityManager.flush();
+
+        // Assert : chargement, relecture des livraisons, lot d'UPDATE et tournée, au lieu d'un UPDATE par arrêt
+        assertEquals(DELIVERIES, statistics.getEntityUpdateCount() - 1);
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "expected batched write-back, got " + statistics.getPrepareStatementCount() + " statements");
+
+        entityManager.clear();
+        List<Delivery> stored = entityManager.find(Tour.class, tourId).getDeliveries();
+        assertEquals(DELIVERIES, stored.size());
+        for (int i = 0; i < DELIVERIES; i++) {
+            assertEquals(i + 1, stored.get(i).getOrder());
+        }
+    }
+
+    @Test
+    void addDeliveryToTour_ShouldPersistTourWithoutAlgorithm() {
+        // Arrange
+        Delivery extra = new Delivery();
+        extra.setAddress("Rue extra");
+        extra.setLatitude(33.55);
+        extra.setLongitude(-7.60);
+        extra.setWeight(5.0);
+        extra.setVolume(0.05);
+        entityManager.persist(extra);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        tourService.addDeliveryToTour(tourId, extra.getId());
+        entityManager.flush();
+
+        // Assert : l'ordre enregistré ne provient plus d'aucun algorithme
+        entityManager.clear();
+        Tour stored = entityManager.find(Tour.class, tourId);
+        assertNull(stored.getAlgorithmUsed());
+        assertEquals(DELIVERIES + 1, stored.getDeliveries().size());
+    }
+
+    @Test
+    void deleteTour_ShouldUnassignDeliveriesWithOneStatement() {
+        // Act
+        tourService.deleteTour(tourId);
+        entityManager.flush();
+
+        // Assert : chargement de la tournée, UPDATE groupé, collection vidée puis suppression
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "expected set-based unassignment, got " + statistics.getPrepareStatementCount() + " statements");
+        entityManager.clear();
+        assertNull(entityManager.find(Tour.class, tourId));
+        Long unassigned = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(d) FROM Delivery d WHERE d.tour IS NULL AND d.order IS NULL", Long.class)
+                .getSingleResult();
+        assertEquals(DELIVERIES, unassigned);
+    }
+}